@@ -15,8 +15,47 @@ export default function Feed() {
     const [selectedItemType, setSelectedItemType] = useState<string>('ALL');
     const [error, setError] = useState<string | null>(null);
     const [showPostForm, setShowPostForm] = useState<boolean>(false);
+    const [nextCursor, setNextCursor] = useState<string | null>(null);
+    const [isLoadingMore, setIsLoadingMore] = useState<boolean>(false);
+    const [searchQuery, setSearchQuery] = useState<string>('');
+    // Results of the last search, or null when showing the regular feed
+    const [searchResults, setSearchResults] = useState<PostProps[] | null>(null);
+    const [facets, setFacets] = useState<Record<string, number>>({});
 
     const BASE_URL = import.meta.env.VITE_BASE_URL || 'http://localhost:8080';
+    const PAGE_SIZE = 20;
+
+    // Fetch one page of the feed, filtered on the server by item type;
+    // "after" is the opaque cursor returned with the previous page
+    const fetchPage = async (after: string | null, itemType: string, signal?: AbortSignal) => {
+        const params = new URLSearchParams({ limit: String(PAGE_SIZE) });
+        if (after !== null) {
+            params.set('after', after);
+        }
+        if (itemType !== 'ALL') {
+            params.set('types', itemType);
+        }
+        const response = await fetch(`${BASE_URL}/api/v1/posts/filter?${params}`, {
+            method: 'GET',
+            credentials: 'include',
+            signal
+        });
+
+        if (!response.ok) {
+            // If it's a 404 or similar, just show empty posts
+            if (response.status === 404) {
+                return { posts: [], nextCursor: null, facets: {} };
+            }
+            throw new Error(`Failed to fetch posts: ${response.status}`);
+        }
+
+        const page = await response.json();
+        return {
+            posts: Array.isArray(page?.posts) ? page.posts as PostProps[] : [],
+            nextCursor: typeof page?.nextCursor === 'string' ? page.nextCursor as string : null,
+            facets: (page?.facets ?? {}) as Record<string, number>
+        };
+    };
 
     useEffect(() => {
         const fetchPosts = async () => {
@@ -26,41 +65,14 @@ export default function Feed() {
                 // Add timeout to detect hanging requests
                 const controller = new AbortController();
                 const timeoutId = setTimeout(() => controller.abort(), 5000); // 5 second timeout
-                
-                const response = await fetch(`${BASE_URL}/api/v1/posts/all`, {
-                    method: 'GET',
-                    credentials: 'include',
-                    signal: controller.signal
-                });
-                
+
+                const page = await fetchPage(null, selectedItemType, controller.signal);
+
                 clearTimeout(timeoutId);
-                
-                if (!response.ok) {
-                    // If it's a 404 or similar, just show empty posts
-                    if (response.status === 404) {
-                        setPosts([]);
-                        return;
-                    }
-                    throw new Error(`Failed to fetch posts: ${response.status}`);
-                }
-                
-                // Check if response has content before parsing JSON
-                const text = await response.text();
-                
-                if (!text.trim()) {
-                    // Empty response, set empty array
-                    setPosts([]);
-                    return;
-                }
-                
-                try {
-                    const posts = JSON.parse(text);
-                    // Ensure posts is an array
-                    setPosts(Array.isArray(posts) ? posts : []);
-                } catch (jsonError) {
-                    // JSON parse error, likely empty or malformed response
-                    setPosts([]);
-                }
+
+                setPosts(page.posts);
+                setNextCursor(page.nextCursor);
+                setFacets(page.facets);
             } catch (error) {
                 if ((error as Error).name === 'AbortError') {
                     setError('Request timed out. Please check your connection.');
@@ -74,16 +86,65 @@ export default function Feed() {
         };
 
         fetchPosts();
-    }, []);
+    }, [selectedItemType]);
+
+    const handleLoadMore = async () => {
+        if (nextCursor === null) {
+            return;
+        }
+        setIsLoadingMore(true);
+        try {
+            const page = await fetchPage(nextCursor, selectedItemType);
+            setPosts(prevPosts => [...prevPosts, ...page.posts]);
+            setNextCursor(page.nextCursor);
+            setFacets(page.facets);
+        } catch (error) {
+            setError('Failed to load more posts. Please try again later.');
+        } finally {
+            setIsLoadingMore(false);
+        }
+    };
 
-    // Filter posts when posts or selectedItemType changes
+    const handleSearch = async (e: React.FormEvent) => {
+        e.preventDefault();
+        const query = searchQuery.trim();
+        if (!query) {
+            setSearchResults(null);
+            return;
+        }
+        setIsLoading(true);
+        setError(null);
+        try {
+            const params = new URLSearchParams({ q: query, limit: '50' });
+            const response = await fetch(`${BASE_URL}/api/v1/posts/search?${params}`, {
+                method: 'GET',
+                credentials: 'include'
+            });
+            if (!response.ok) {
+                throw new Error(`Failed to search posts: ${response.status}`);
+            }
+            const results = await response.json();
+            setSearchResults(Array.isArray(results) ? results : []);
+        } catch (error) {
+            setError('Search failed. Please try again later.');
+        } finally {
+            setIsLoading(false);
+        }
+    };
+
+    const handleClearSearch = () => {
+        setSearchQuery('');
+        setSearchResults(null);
+    };
+
+    // The feed is already filtered by the server; search results are filtered here
     useEffect(() => {
-        if (selectedItemType === 'ALL') {
-            setFilteredPosts(posts);
+        if (searchResults === null || selectedItemType === 'ALL') {
+            setFilteredPosts(searchResults ?? posts);
         } else {
-            setFilteredPosts(posts.filter(post => post.itemType === selectedItemType));
+            setFilteredPosts(searchResults.filter(post => post.itemType === selectedItemType));
         }
-    }, [posts, selectedItemType]);
+    }, [posts, searchResults, selectedItemType]);
 
     const handleFilterChange = (itemType: string) => {
         setSelectedItemType(itemType);
@@ -143,12 +204,29 @@ export default function Feed() {
                     <FilterSidebar 
                         selectedItemType={selectedItemType}
                         onFilterChange={handleFilterChange}
+                        counts={facets}
                     />
                     
                     <div className="feed-content">
+                        <form className="feed-search" onSubmit={handleSearch}>
+                            <input
+                                type="search"
+                                value={searchQuery}
+                                onChange={(e) => setSearchQuery(e.target.value)}
+                                placeholder="Search posts..."
+                                aria-label="Search posts"
+                            />
+                            <button type="submit">Search</button>
+                            {searchResults !== null && (
+                                <button type="button" onClick={handleClearSearch}>Clear</button>
+                            )}
+                        </form>
                         {isLoading && <p>Loading posts...</p>}
                         {error && <p className="error">{error}</p>}
-                        {filteredPosts.length === 0 && !isLoading && !error && (
+                        {searchResults !== null && filteredPosts.length === 0 && !isLoading && !error && (
+                            <p>No posts match your search.</p>
+                        )}
+                        {searchResults === null && filteredPosts.length === 0 && !isLoading && !error && (
                             <p>
                                 {selectedItemType === 'ALL' 
                                     ? `No posts available. ${isAuthenticated ? 'Be the first to post!' : 'Login to start posting!'}` 
@@ -159,6 +237,15 @@ export default function Feed() {
                         {filteredPosts.map((post) => (
                             <Post key={post.id} {...post} />
                         ))}
+                        {searchResults === null && nextCursor !== null && !isLoading && (
+                            <button
+                                className="load-more-btn"
+                                onClick={handleLoadMore}
+                                disabled={isLoadingMore}
+                            >
+                                {isLoadingMore ? 'Loading...' : 'Load More'}
+                            </button>
+                        )}
                     </div>
                 </div>
             </div>
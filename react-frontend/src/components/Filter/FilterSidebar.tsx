@@ -3,9 +3,11 @@ import './FilterSidebar.css';
 interface FilterSidebarProps {
     selectedItemType: string;
     onFilterChange: (itemType: string) => void;
+    // Optional number of posts per item type, shown next to each option
+    counts?: Record<string, number>;
 }
 
-export default function FilterSidebar({ selectedItemType, onFilterChange }: FilterSidebarProps) {
+export default function FilterSidebar({ selectedItemType, onFilterChange, counts }: FilterSidebarProps) {
     const filterOptions = [
         { value: 'ALL', label: 'All Items' },
         { value: 'BOOK', label: 'Books' },
@@ -20,6 +22,16 @@ export default function FilterSidebar({ selectedItemType, onFilterChange }: Filt
         { value: 'OTHER', label: 'Other' }
     ];
 
+    const countFor = (value: string) => {
+        if (!counts) {
+            return undefined;
+        }
+        if (value === 'ALL') {
+            return Object.values(counts).reduce((sum, count) => sum + count, 0);
+        }
+        return counts[value] ?? 0;
+    };
+
     return (
         <div className="filter-sidebar">
             <div className="filter-header">
@@ -37,6 +49,9 @@ export default function FilterSidebar({ selectedItemType, onFilterChange }: Filt
                             onChange={(e) => onFilterChange(e.target.value)}
                         />
                         <span className="filter-label">{option.label}</span>
+                        {countFor(option.value) !== undefined && (
+                            <span className="filter-count">{countFor(option.value)}</span>
+                        )}
                     </label>
                 ))}
             </div>
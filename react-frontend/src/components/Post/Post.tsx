@@ -150,10 +150,23 @@ export default function Post(post: PostProps) {
     useEffect(() => {
         if (post.hasImage) {
             setIsLoading(true);
-            fetch(`${BASE_URL}/api/v1/posts/${post.id}/image`, {
-                credentials: 'include',
-            })
-                .then(res => res.blob())
+            // Versioned URLs are immutable, so the browser can serve them from its cache
+            const version = post.imageVersion ? `&v=${post.imageVersion}` : '';
+            const url = `${BASE_URL}/api/v1/posts/${post.id}/image?size=medium${version}`;
+            // 202 means the resized image is still being generated; try again after Retry-After
+            const fetchImage = (attempt: number): Promise<Blob> =>
+                fetch(url, { credentials: 'include' }).then(res => {
+                    if (res.status === 202 && attempt < 10) {
+                        const delay = Number(res.headers.get('Retry-After') || '1') * 1000;
+                        return new Promise(resolve => setTimeout(resolve, delay))
+                            .then(() => fetchImage(attempt + 1));
+                    }
+                    if (!res.ok || res.status === 202) {
+                        throw new Error(`Image request failed with status ${res.status}`);
+                    }
+                    return res.blob();
+                });
+            fetchImage(0)
                 .then(blob => {
                     const url = URL.createObjectURL(blob);
                     setImageUrl(url);
@@ -167,7 +180,7 @@ export default function Post(post: PostProps) {
                 });
         }
 
-    }, [post.id, BASE_URL, post.hasImage]);
+    }, [post.id, BASE_URL, post.hasImage, post.imageVersion]);
 
     useEffect(() => {
         return () => {
@@ -5,6 +5,11 @@ export interface PostProps {
     itemType: string;
     content: string;
     hasImage?: boolean;
+    imageVersion?: string;
+    latitude?: number;
+    longitude?: number;
+    createdAt?: string;
+    resolvedAt?: string | null;
     // Optional props for edit/delete functionality
     showEditDelete?: boolean;
     onPostDeleted?: (postId: number) => void;
@@ -1,16 +1,24 @@
 package com.umd.springbootbackend.config;
 
 import com.umd.springbootbackend.model.SecurityUser;
+import com.umd.springbootbackend.model.User;
 import com.umd.springbootbackend.repo.UserRepository;
+import com.umd.springbootbackend.service.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
 
 @Configuration
 public class ApplicationConfig {
@@ -27,9 +35,30 @@ public class ApplicationConfig {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
 
+    // BCrypt on its own bounded pool; see BoundedPasswordEncoder
+    @Bean
+    PasswordEncoder passwordEncoder(
+            @Value("${security.password.bcrypt-strength}") int strength,
+            @Value("${security.password.hash-threads}") int threads,
+            @Value("${security.password.hash-queue-capacity}") int queueCapacity,
+            @Value("${security.password.hash-retry-after}") Duration retryAfter,
+            @Value("${security.password.hash-timeout}") Duration timeout,
+            MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(
+                new BCryptPasswordEncoder(strength), poolSize, queueCapacity, retryAfter, timeout, meterRegistry);
+    }
+
+    // Called after a successful login whose stored hash used a lower strength than configured,
+    // so raising security.password.bcrypt-strength rehashes passwords as users sign in
     @Bean
-    BCryptPasswordEncoder bCryptPasswordEncoder() {
-        return new BCryptPasswordEncoder();
+    public UserDetailsPasswordService userDetailsPasswordService() {
+        return (userDetails, newPassword) -> {
+            User user = userRepository.findByUsername(userDetails.getUsername())
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+            user.setPassword(newPassword);
+            return new SecurityUser(userRepository.save(user));
+        };
     }
 
     @Bean
@@ -39,10 +68,11 @@ public class ApplicationConfig {
 
     @Bean
     @SuppressWarnings("deprecation")
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService());
-        authProvider.setPasswordEncoder(bCryptPasswordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService());
         return authProvider;
     }
 
@@ -1,6 +1,10 @@
 package com.umd.springbootbackend.config;
 
+import com.umd.springbootbackend.model.SecurityUser;
 import com.umd.springbootbackend.service.JwtService;
+import com.umd.springbootbackend.service.TokenRevocationService;
+import com.umd.springbootbackend.service.UserRevocationRegistry;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,14 +26,20 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final UserRevocationRegistry userRevocationRegistry;
+    private final TokenRevocationService tokenRevocationService;
     private final HandlerExceptionResolver handlerExceptionResolver;
 
     public JwtAuthenticationFilter(
             JwtService jwtService,
             UserDetailsService userDetailsService,
+            UserRevocationRegistry userRevocationRegistry,
+            TokenRevocationService tokenRevocationService,
             HandlerExceptionResolver handlerExceptionResolver) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.userRevocationRegistry = userRevocationRegistry;
+        this.tokenRevocationService = tokenRevocationService;
         this.handlerExceptionResolver = handlerExceptionResolver;
     }
 
@@ -47,12 +57,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         try {
-            final String userName = jwtService.extractUsername(jwt);
+            // One verification per request; repeat requests with the same token hit the claims cache
+            final Claims claims = jwtService.verify(jwt);
+            final String userName = claims.getSubject();
 
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            if (userName != null && auth == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userName);
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+            // Revoked tokens (e.g. logged out) are treated as absent; the Bloom filter answers most in memory
+            if (userName != null && auth == null && !tokenRevocationService.isRevoked(claims.getId())) {
+                UserDetails userDetails = resolveUser(claims);
+                if (userDetails != null && jwtService.isTokenValid(claims, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -69,6 +82,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
     }
 
+    // The principal comes straight from the verified claims when the token carries a user id
+    // and was issued since startup; revoked users get none. Older tokens, which predate the
+    // uid claim or may outlive a revocation lost in a restart, are checked against the database.
+    private UserDetails resolveUser(Claims claims) {
+        Integer userId = jwtService.extractUserId(claims);
+        if (userId == null || userRevocationRegistry.issuedBeforeStartup(claims.getIssuedAt())) {
+            return userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+        if (userRevocationRegistry.isRevoked(userId)) {
+            return null;
+        }
+        return new SecurityUser(userId, claims.getSubject());
+    }
+
     private String extractJwtFromCookie(HttpServletRequest request) {
         if (request.getCookies() != null) {
             for (Cookie cookie : request.getCookies()) {
@@ -0,0 +1,134 @@
+package com.umd.springbootbackend.config;
+
+import com.umd.springbootbackend.service.ImageStore;
+import com.umd.springbootbackend.service.ImageVariantService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Post images used to be stored in the posts.image column (a PostgreSQL large
+ * object, or bytea on older schemas) and now live in the ImageStore. On the
+ * first start after the upgrade this streams every remaining blob into the
+ * store, fills in image_key, image_size and image_updated_at, and drops the
+ * old column once every row has been moved. Runs before the web server
+ * starts, so no request sees a post whose image has not been migrated yet.
+ */
+@Component
+public class LegacyImageMigrator implements SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(LegacyImageMigrator.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ImageStore imageStore;
+    private final ImageVariantService imageVariantService;
+    private final TransactionTemplate transactionTemplate;
+
+    public LegacyImageMigrator(
+            JdbcTemplate jdbcTemplate,
+            ImageStore imageStore,
+            ImageVariantService imageVariantService,
+            PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.imageStore = imageStore;
+        this.imageVariantService = imageVariantService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        String columnType = legacyColumnType();
+        if (columnType == null) {
+            return;
+        }
+        boolean largeObjects = "oid".equalsIgnoreCase(columnType);
+
+        List<Integer> ids = jdbcTemplate.queryForList(
+                "select id from posts where image is not null and image_key is null order by id", Integer.class);
+        int failed = 0;
+        for (Integer id : ids) {
+            try {
+                // One transaction per post; large objects can only be read inside one
+                transactionTemplate.executeWithoutResult(status -> migrate(id, largeObjects));
+            } catch (RuntimeException e) {
+                failed++;
+                logger.error("Failed to migrate the stored image of post {}", id, e);
+            }
+        }
+        if (!ids.isEmpty()) {
+            logger.info("Moved {} post images from the database into the image store", ids.size() - failed);
+        }
+
+        if (failed > 0) {
+            logger.warn("Keeping posts.image because {} images could not be migrated; they are retried on next start",
+                    failed);
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (largeObjects) {
+                // Dropping the column would leave the large objects themselves behind
+                jdbcTemplate.queryForList("select lo_unlink(image) from posts where image is not null");
+            }
+            jdbcTemplate.execute("alter table posts drop column image");
+        });
+        logger.info("Dropped the legacy posts.image column");
+    }
+
+    private void migrate(Integer id, boolean largeObjects) {
+        String key = jdbcTemplate.query("select image from posts where id = ?", rs -> {
+            if (!rs.next()) {
+                return null;
+            }
+            try (InputStream in = largeObjects ? rs.getBlob(1).getBinaryStream() : rs.getBinaryStream(1)) {
+                return in == null ? null : imageStore.store(in, Long.MAX_VALUE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, id);
+        if (key == null) {
+            return;
+        }
+        long size = imageStore.load(key)
+                .map(resource -> {
+                    try {
+                        return resource.contentLength();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .orElseThrow(() -> new IllegalStateException("Image vanished from the store: " + key));
+        jdbcTemplate.update("update posts set image_key = ?, image_size = ?, image_updated_at = ? where id = ?",
+                key, size, Timestamp.from(Instant.now()), id);
+        imageVariantService.submit(key);
+    }
+
+    // Type name of posts.image, or null when the column is already gone
+    private String legacyColumnType() {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String table : new String[] {"posts", "POSTS"}) {
+                for (String column : new String[] {"image", "IMAGE"}) {
+                    try (ResultSet columns = metaData.getColumns(null, null, table, column)) {
+                        if (columns.next()) {
+                            return columns.getString("TYPE_NAME");
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+    }
+}
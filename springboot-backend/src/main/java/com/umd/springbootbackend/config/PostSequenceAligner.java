@@ -0,0 +1,53 @@
+package com.umd.springbootbackend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Post ids used to come from an identity column and now come from posts_seq;
+ * post_matches ids likewise moved to post_matches_seq. On databases that were
+ * populated before the switch, a new sequence starts below the ids already
+ * taken; this moves it past them on startup. The pooled optimizer hands out
+ * (value - allocationSize, value], so setting the sequence to max(id) makes the
+ * next block start at max(id) + 1. Runs once the schema exists but before the
+ * web server starts, so no request can insert a row with a colliding id first.
+ */
+@Component
+public class PostSequenceAligner implements SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(PostSequenceAligner.class);
+    // sequence -> table whose ids it generates
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "posts_seq", "posts",
+            "post_matches_seq", "post_matches");
+    private static final String ALIGN_SQL =
+            "select setval('%1$s', t.max_id) from (select max(id) as max_id from %2$s) t "
+            + "where t.max_id >= (select last_value from %1$s)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PostSequenceAligner(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        String database = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            return;
+        }
+        SEQUENCES.forEach((sequence, table) -> {
+            List<Long> moved = jdbcTemplate.queryForList(String.format(ALIGN_SQL, sequence, table), Long.class);
+            if (!moved.isEmpty()) {
+                logger.info("Moved {} past existing {} ids to {}", sequence, table, moved.get(0));
+            }
+        });
+    }
+}
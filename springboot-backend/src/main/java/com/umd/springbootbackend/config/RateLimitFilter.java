@@ -0,0 +1,105 @@
+package com.umd.springbootbackend.config;
+
+import com.umd.springbootbackend.model.SecurityUser;
+import com.umd.springbootbackend.service.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Throttles the routes listed under rate-limit.routes. Runs after
+ * JwtAuthenticationFilter, so signed-in clients are limited by user id and
+ * everyone else by IP address. Requests over the limit get 429 with
+ * Retry-After. Decisions are counted in http.rate_limit.decisions by route
+ * and outcome.
+ */
+@Component
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitFilter extends OncePerRequestFilter {
+    private final RateLimiter rateLimiter;
+    private final List<LimitedRoute> routes;
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    private record LimitedRoute(String name, String method, PathPattern pattern, int capacity, Duration period,
+                                Counter allowed, Counter rejected) {
+        boolean matches(HttpServletRequest request, PathContainer path) {
+            return (method == null || method.equalsIgnoreCase(request.getMethod())) && pattern.matches(path);
+        }
+    }
+
+    public RateLimitFilter(RateLimiter rateLimiter, RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.routes = properties.routes().stream()
+                .map(route -> new LimitedRoute(
+                        route.name(),
+                        route.method(),
+                        PathPatternParser.defaultInstance.parse(route.path()),
+                        route.capacity(),
+                        route.period(),
+                        decisions(meterRegistry, route.name(), "allowed"),
+                        decisions(meterRegistry, route.name(), "rejected")))
+                .toList();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        PathContainer path = PathContainer.parsePath(urlPathHelper.getPathWithinApplication(request));
+        LimitedRoute route = routes.stream().filter(r -> r.matches(request, path)).findFirst().orElse(null);
+        if (route == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Duration wait = rateLimiter.tryAcquire(route.name() + "|" + clientKey(request), route.capacity(), route.period());
+        if (wait.isZero()) {
+            route.allowed().increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        route.rejected().increment();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (wait.toMillis() + 999) / 1000)));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write("Too many requests, try again later");
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof SecurityUser user && user.getId() != null) {
+            return "user:" + user.getId();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static Counter decisions(MeterRegistry meterRegistry, String route, String outcome) {
+        return Counter.builder("http.rate_limit.decisions")
+                .tag("route", route)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
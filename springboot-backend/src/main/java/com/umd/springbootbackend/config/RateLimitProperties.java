@@ -0,0 +1,21 @@
+package com.umd.springbootbackend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Per-route request limits for RateLimitFilter, bound from rate-limit.*.
+ * Each route allows a burst of capacity requests per client, refilled at
+ * capacity requests per period.
+ */
+@ConfigurationProperties("rate-limit")
+public record RateLimitProperties(List<Route> routes) {
+    public RateLimitProperties {
+        routes = routes == null ? List.of() : List.copyOf(routes);
+    }
+
+    public record Route(String name, String method, String path, int capacity, Duration period) {
+    }
+}
@@ -6,25 +6,40 @@ import com.umd.springbootbackend.dto.VerifyUserDto;
 import com.umd.springbootbackend.model.SecurityUser;
 import com.umd.springbootbackend.service.AuthenticationService;
 import com.umd.springbootbackend.service.JwtService;
+import com.umd.springbootbackend.service.PasswordHashingBusyException;
+import com.umd.springbootbackend.service.TokenRevocationService;
 import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.WebUtils;
 
 @RestController
 @RequestMapping("/auth")
 public class AuthenticationController {
     private final JwtService jwtService;
     private final AuthenticationService authenticationService;
+    private final TokenRevocationService tokenRevocationService;
 
-    public AuthenticationController(JwtService jwtService, AuthenticationService authenticationService) {
+    public AuthenticationController(
+            JwtService jwtService,
+            AuthenticationService authenticationService,
+            TokenRevocationService tokenRevocationService) {
         this.jwtService = jwtService;
         this.authenticationService = authenticationService;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @PostMapping("/signup")
     public ResponseEntity<String> register(@RequestBody RegisterUserDto registerUserDto) {
-        authenticationService.signup(registerUserDto);
+        try {
+            authenticationService.signup(registerUserDto);
+        } catch (PasswordHashingBusyException e) {
+            return busy(e);
+        }
         return ResponseEntity.ok("user registered successfully");
     }
 
@@ -32,7 +47,12 @@ public class AuthenticationController {
     public ResponseEntity<String> authenticate(
             @RequestBody LoginUserDto loginUserDto,
             HttpServletResponse response) {
-        SecurityUser authenticatedUser = authenticationService.authenticate(loginUserDto);
+        SecurityUser authenticatedUser;
+        try {
+            authenticatedUser = authenticationService.authenticate(loginUserDto);
+        } catch (PasswordHashingBusyException e) {
+            return busy(e);
+        }
         
         // Generate a standard JWT token for backend authentication (not Supabase-specific)
         String jwtToken = jwtService.generateToken(authenticatedUser);
@@ -52,7 +72,13 @@ public class AuthenticationController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<String> logout(HttpServletResponse response) {
+    public ResponseEntity<String> logout(HttpServletRequest request, HttpServletResponse response) {
+        // Clearing the cookie is not enough if the token was copied; refuse it from now on
+        Cookie authCookie = WebUtils.getCookie(request, "auth-token");
+        if (authCookie != null) {
+            tokenRevocationService.revoke(authCookie.getValue());
+        }
+
         Cookie jwtCookie = new Cookie("auth-token", "");
         jwtCookie.setHttpOnly(true);
         jwtCookie.setSecure(true);
@@ -84,5 +110,10 @@ public class AuthenticationController {
         }
     }
 
-    
+    // Password hashing is saturated; tell the client when to retry instead of queueing it
+    private static ResponseEntity<String> busy(PasswordHashingBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())))
+                .body(e.getMessage());
+    }
 }
@@ -1,112 +1,414 @@
 package com.umd.springbootbackend.controller;
 
+import com.umd.springbootbackend.dto.FeedCursor;
 import com.umd.springbootbackend.dto.PostDto;
+import com.umd.springbootbackend.dto.PostImageView;
+import com.umd.springbootbackend.dto.PostMatchDto;
+import com.umd.springbootbackend.model.ImageVariant;
 import com.umd.springbootbackend.model.ItemType;
 import com.umd.springbootbackend.model.Post;
 import com.umd.springbootbackend.model.SecurityUser;
-import com.umd.springbootbackend.model.User;
+import com.umd.springbootbackend.service.FeedResponseCache;
+import com.umd.springbootbackend.service.PostExportService;
 import com.umd.springbootbackend.service.PostService;
-import com.umd.springbootbackend.service.UserService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
 import org.springframework.security.core.Authentication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Duration;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/v1/posts")
 public class PostController {
     private static final Logger logger = LoggerFactory.getLogger(PostController.class);
+    private static final Duration IMAGE_MAX_AGE = Duration.ofDays(365);
     private final PostService postService;
-    private final UserService userService;
+    private final PostExportService postExportService;
 
-    public PostController(PostService postService, UserService userService) {
+    public PostController(PostService postService, PostExportService postExportService) {
         this.postService = postService;
-        this.userService = userService;
+        this.postExportService = postExportService;
     }
 
-    private User getCurrUser() {
+    // The principal already carries the user id from the token, so no users lookup is needed
+    private SecurityUser getCurrUser() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || !auth.isAuthenticated()) {
+        if (auth == null || !auth.isAuthenticated() || !(auth.getPrincipal() instanceof SecurityUser securityUser)) {
             throw new RuntimeException("No authenticated user found");
         }
-        SecurityUser securityUser = (SecurityUser) auth.getPrincipal();
-        return userService.getUserById(securityUser.getId());
+        return securityUser;
     }
 
+    // /all, /type and /user carry the catalog version as a weak ETag, suffixed with the representation
+    // (JSON, gzipped JSON or CBOR); a matching If-None-Match gets a 304 before any query runs
     @GetMapping("/all")
-    public ResponseEntity<List<PostDto>> getAllPosts() {
+    public ResponseEntity<?> getAllPosts(
+            @RequestHeader(value=HttpHeaders.ACCEPT, required=false) String accept,
+            @RequestHeader(value=HttpHeaders.ACCEPT_ENCODING, required=false) String acceptEncoding,
+            @RequestHeader(value=HttpHeaders.IF_NONE_MATCH, required=false) String ifNoneMatch) {
         logger.info("getAllPosts() called");
+        FeedFormat format = FeedFormat.of(accept, acceptEncoding);
+        String etag = catalogETag(postService.getCatalogVersion(), format);
+        if (etagMatches(ifNoneMatch, etag)) {
+            return notModified(etag, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        }
         try {
-            List<PostDto> posts = postService.getAllPosts();
-            logger.info("getAllPosts() returning {} posts", posts.size());
-            logger.info("First few posts: {}", posts.stream().limit(2).toList());
-            return ResponseEntity.ok(posts);
+            ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                    .eTag("W/" + etag)
+                    .cacheControl(CacheControl.noCache());
+            return feedBody(builder, format, postService::getAllPostsResponse, postService::getAllPosts);
         } catch (Exception e) {
             logger.error("Error in getAllPosts()", e);
             throw e;
         }
     }
 
+    @GetMapping("/feed")
+    public ResponseEntity<?> getFeed(
+            @RequestParam(value="after", required=false) String after,
+            @RequestParam(value="limit", defaultValue="" + PostService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestHeader(value=HttpHeaders.ACCEPT, required=false) String accept,
+            @RequestHeader(value=HttpHeaders.ACCEPT_ENCODING, required=false) String acceptEncoding) {
+        FeedCursor cursor;
+        try {
+            cursor = parseCursor(after);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return feedBody(ResponseEntity.ok(), FeedFormat.of(accept, acceptEncoding),
+                () -> postService.getFeedPageResponse(cursor, limit),
+                () -> postService.getFeedPage(cursor, limit));
+    }
+
+    // types is a comma-separated list of item types; omitted means every type
+    @GetMapping("/filter")
+    public ResponseEntity<?> getFilteredFeed(
+            @RequestParam(value="types", required=false) List<String> types,
+            @RequestParam(value="after", required=false) String after,
+            @RequestParam(value="limit", defaultValue="" + PostService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestHeader(value=HttpHeaders.ACCEPT, required=false) String accept,
+            @RequestHeader(value=HttpHeaders.ACCEPT_ENCODING, required=false) String acceptEncoding) {
+        EnumSet<ItemType> selected;
+        FeedCursor cursor;
+        try {
+            selected = parseItemTypes(types);
+            cursor = parseCursor(after);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return feedBody(ResponseEntity.ok(), FeedFormat.of(accept, acceptEncoding),
+                () -> postService.getFilteredPageResponse(selected, cursor, limit),
+                () -> postService.getFilteredPage(selected, cursor, limit));
+    }
+
+    // Posts within radius meters of lat/lon, nearest first; type takes the same list as /filter
+    @GetMapping("/nearby")
+    public ResponseEntity<?> getNearbyPosts(
+            @RequestParam("lat") double latitude,
+            @RequestParam("lon") double longitude,
+            @RequestParam(value="radius", defaultValue="" + PostService.DEFAULT_NEARBY_RADIUS_METERS) int radius,
+            @RequestParam(value="type", required=false) List<String> types,
+            @RequestParam(value="limit", defaultValue="" + PostService.DEFAULT_PAGE_SIZE) int limit) {
+        try {
+            return ResponseEntity.ok(postService.getNearbyPosts(latitude, longitude, radius, parseItemTypes(types), limit));
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode())
+                .body(Map.of("error", e.getReason()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Invalid item type"));
+        }
+    }
+
+    // "after" is the nextCursor of the previous page; null means the first page
+    private static FeedCursor parseCursor(String after) {
+        return after == null ? null : FeedCursor.parse(after);
+    }
+
+    // EnumSet is a bit vector over the ItemType ordinals; null or empty means every type
+    private static EnumSet<ItemType> parseItemTypes(List<String> types) {
+        EnumSet<ItemType> selected = EnumSet.noneOf(ItemType.class);
+        if (types != null) {
+            for (String type : types) {
+                if (!type.isBlank()) {
+                    selected.add(ItemType.valueOf(type.trim().toUpperCase()));
+                }
+            }
+        }
+        return selected;
+    }
+
+    // The three bodies a feed endpoint can send for the same data; the suffix keeps their ETags apart
+    private enum FeedFormat {
+        JSON(""), GZIP("-gzip"), CBOR("-cbor");
+
+        private final String etagSuffix;
+
+        FeedFormat(String etagSuffix) {
+            this.etagSuffix = etagSuffix;
+        }
+
+        static FeedFormat of(String accept, String acceptEncoding) {
+            if (prefersCbor(accept)) {
+                return CBOR;
+            }
+            return acceptsGzip(acceptEncoding) ? GZIP : JSON;
+        }
+
+        MediaType mediaType() {
+            return this == CBOR ? MediaType.APPLICATION_CBOR : MediaType.APPLICATION_JSON;
+        }
+    }
+
+    // JSON comes pre-serialized from the FeedResponseCache, gzipped when the client accepts it.
+    // Clients asking for CBOR get the same data serialized by the CBOR message converter.
+    private static ResponseEntity<?> feedBody(
+            ResponseEntity.BodyBuilder builder,
+            FeedFormat format,
+            Supplier<FeedResponseCache.CachedResponse> json,
+            Supplier<?> cbor) {
+        builder.varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING).contentType(format.mediaType());
+        return switch (format) {
+            case CBOR -> builder.body(cbor.get());
+            case GZIP -> builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(json.get().gzip());
+            case JSON -> builder.body(json.get().json());
+        };
+    }
+
+    // JSON stays the default; CBOR is used only when named in Accept at least as highly as JSON
+    private static boolean prefersCbor(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        double cbor = 0;
+        double json = 0;
+        try {
+            for (MediaType type : MediaType.parseMediaTypes(accept)) {
+                if (type.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) {
+                    cbor = Math.max(cbor, type.getQualityValue());
+                } else if (type.includes(MediaType.APPLICATION_JSON)) {
+                    json = Math.max(json, type.getQualityValue());
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        return cbor > 0 && cbor >= json;
+    }
+
+    // gzip is used only when Accept-Encoding allows it with q > 0, either by name or through "*"
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1;
+        double any = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = Math.max(gzip, quality);
+            } else if (name.equals("*")) {
+                any = Math.max(any, quality);
+            }
+        }
+        return gzip >= 0 ? gzip > 0 : any > 0;
+    }
+
+    // Full catalog as NDJSON, streamed from a database cursor for the nightly sync
+    @GetMapping(value="/export", produces=MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportPosts() {
+        StreamingResponseBody body = postExportService::export;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<PostDto>> searchPosts(
+            @RequestParam("q") String query,
+            @RequestParam(value="limit", defaultValue="" + PostService.DEFAULT_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(postService.searchPosts(query, limit));
+    }
+
+    @GetMapping("/{id}/matches")
+    public ResponseEntity<List<PostMatchDto>> getMatches(
+            @PathVariable Integer id,
+            @RequestParam(value="limit", defaultValue="10") int limit) {
+        return ResponseEntity.ok(postService.getMatches(id, limit));
+    }
+
     @GetMapping("/user/{username}")
-    public ResponseEntity<List<PostDto>> getPostsByUserId(@PathVariable String username) {
+    public ResponseEntity<List<PostDto>> getPostsByUserId(
+            @PathVariable String username,
+            @RequestHeader(value=HttpHeaders.ACCEPT, required=false) String accept,
+            @RequestHeader(value=HttpHeaders.IF_NONE_MATCH, required=false) String ifNoneMatch) {
+        // Written by the message converters, which are never gzipped
+        FeedFormat format = prefersCbor(accept) ? FeedFormat.CBOR : FeedFormat.JSON;
+        String etag = catalogETag(postService.getCatalogVersion(), format);
+        if (etagMatches(ifNoneMatch, etag)) {
+            return notModified(etag, HttpHeaders.ACCEPT);
+        }
         try {
             List<PostDto> posts = postService.getPostsByUsername(username);
-            return ResponseEntity.ok(posts);
+            return ResponseEntity.ok()
+                .eTag("W/" + etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .contentType(format.mediaType())
+                .body(posts);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
     @GetMapping("/type/{itemType}")
-    public ResponseEntity<List<PostDto>> getPostsByItemType(@PathVariable String itemType) {
-        try { 
-            List<Post> posts = postService.getPostsByItemType(itemType);
-            List<PostDto> postDtos = posts.stream()
-                .map(post -> new PostDto(
-                    post.getId(),
-                    post.getUser().getId(),
-                    post.getUser().getUsername(),
-                    post.getItemType().name(),
-                    post.getContent(),
-                    post.getImage() != null && post.getImage().length > 0
-                ))
-                .collect(Collectors.toList());
-            return ResponseEntity.ok(postDtos);
+    public ResponseEntity<List<PostDto>> getPostsByItemType(
+            @PathVariable String itemType,
+            @RequestHeader(value=HttpHeaders.ACCEPT, required=false) String accept,
+            @RequestHeader(value=HttpHeaders.IF_NONE_MATCH, required=false) String ifNoneMatch) {
+        // Written by the message converters, which are never gzipped
+        FeedFormat format = prefersCbor(accept) ? FeedFormat.CBOR : FeedFormat.JSON;
+        String etag = catalogETag(postService.getCatalogVersion(), format);
+        if (etagMatches(ifNoneMatch, etag)) {
+            return notModified(etag, HttpHeaders.ACCEPT);
+        }
+        try {
+            List<PostDto> posts = postService.getPostsByItemType(itemType);
+            return ResponseEntity.ok()
+                .eTag("W/" + etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .contentType(format.mediaType())
+                .body(posts);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
 
+    // Streams the file from the ImageStore; Spring answers Range requests for Resource bodies with 206.
+    // ?size= picks a resized variant (thumb, medium, full; full by default). The uploaded file itself
+    // is never served, as it may carry EXIF such as GPS; until the background job has produced the
+    // variants the answer is 202 with Retry-After, and 404 if the image could not be processed.
+    // ETags are derived from the image's content hash. URLs carrying the current hash as ?v= can
+    // never change and are cached for a year; everything else must revalidate.
     @GetMapping("/{id}/image")
-    public ResponseEntity<byte[]> getImageById(@PathVariable Integer id) {
-        Post post = postService.getPostById(id);
-        if (post.getImage() != null) {
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(post.getImageType()))
-                    .body(post.getImage());
+    public ResponseEntity<Resource> getImageById(
+            @PathVariable Integer id,
+            @RequestParam(value="size", required=false) String size,
+            @RequestParam(value="v", required=false) String version,
+            @RequestHeader(value=HttpHeaders.IF_NONE_MATCH, required=false) String ifNoneMatch) {
+        ImageVariant variant;
+        try {
+            variant = size == null ? ImageVariant.FULL : ImageVariant.fromName(size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Optional<PostImageView> metadata = postService.getImageMetadata(id);
+        if (metadata.isEmpty() || metadata.get().getImageKey() == null) {
+            return ResponseEntity.notFound().build();
+        }
+        PostImageView post = metadata.get();
+
+        Optional<Resource> image = postService.getImageVariant(post, variant);
+        if (image.isEmpty()) {
+            if (!postService.requestImageVariants(post)) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .cacheControl(CacheControl.noStore())
+                    .build();
+        }
+
+        String etag = "\"" + post.getImageKey() + "-" + variant.getName() + "\"";
+        CacheControl cacheControl = post.getImageKey().equals(version)
+                ? CacheControl.maxAge(IMAGE_MAX_AGE).cachePublic().immutable()
+                : CacheControl.noCache().cachePublic();
+        boolean notModified = etagMatches(ifNoneMatch, etag);
+        ResponseEntity.BodyBuilder builder = notModified
+                ? ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                : ResponseEntity.ok().contentType(MediaType.IMAGE_JPEG);
+        builder.eTag(etag).cacheControl(cacheControl);
+        // Posts without an upload time get no Last-Modified rather than a 1970 date
+        if (post.getImageUpdatedAt() != null) {
+            builder.lastModified(post.getImageUpdatedAt());
+        }
+        return notModified ? builder.build() : builder.body(image.get());
+    }
+
+    private static String catalogETag(long version, FeedFormat format) {
+        return "\"" + version + format.etagSuffix + "\"";
+    }
+
+    // Carries the same validators and Vary as the 200 it stands in for
+    private static <T> ResponseEntity<T> notModified(String etag, String... vary) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag("W/" + etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(vary)
+                .build();
+    }
+
+    // If-None-Match uses weak comparison and may list several tags
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
         }
-        return ResponseEntity.notFound().build();
+        return false;
     }
 
     @PostMapping(consumes=MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<?> createPost(
             @RequestParam("itemType") String itemType,
             @RequestParam("content") String content,
-            @RequestParam(value="image", required=false) MultipartFile imageFile
+            @RequestParam(value="image", required=false) MultipartFile imageFile,
+            @RequestParam(value="latitude", required=false) Double latitude,
+            @RequestParam(value="longitude", required=false) Double longitude
     ) {
                 
-        User currUser = getCurrUser();
+        SecurityUser currUser = getCurrUser();
         Integer userId = currUser.getId();
 
         ItemType itemTypeEnum;
@@ -120,42 +422,50 @@ public class PostController {
         Post post = new Post();
         post.setItemType(itemTypeEnum);
         post.setContent(content);
+        post.setLatitude(latitude);
+        post.setLongitude(longitude);
         try {
             Post createdPost = postService.createPost(post, userId, imageFile);
-            PostDto postDto = new PostDto(
-                createdPost.getId(),
-                createdPost.getUser().getId(),
-                createdPost.getUser().getUsername(),
-                createdPost.getItemType().name(),
-                createdPost.getContent(),
-                createdPost.getImage() != null && createdPost.getImage().length > 0
-            );
+            PostDto postDto = PostDto.from(createdPost);
             return ResponseEntity.status(HttpStatus.CREATED).body(postDto);
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode())
+                .body(Map.of("error", e.getReason()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of("error", "Failed to create post"));
         }
     }
 
+    // Creates up to PostService.MAX_BULK_SIZE text-only posts in one request
+    @PostMapping(value="/bulk", consumes=MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> createPosts(@RequestBody List<Post> posts) {
+        SecurityUser currUser = getCurrUser();
+        try {
+            List<PostDto> created = postService.createPosts(posts, currUser.getId()).stream()
+                .map(PostDto::from)
+                .toList();
+            return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode())
+                .body(Map.of("error", e.getReason()));
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<PostDto> updatePost(
         @PathVariable Integer id, 
         @RequestBody Post postDetails) {
         try {
-            User currentUser = getCurrUser();
+            SecurityUser currentUser = getCurrUser();
             if (!postService.isPostOwner(id, currentUser.getId())) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
             Post updatedPost = postService.updatePost(id, postDetails, currentUser.getId());
-            PostDto postDto = new PostDto(
-                updatedPost.getId(),
-                updatedPost.getUser().getId(),
-                updatedPost.getUser().getUsername(),
-                updatedPost.getItemType().name(),
-                updatedPost.getContent(),
-                updatedPost.getImage() != null && updatedPost.getImage().length > 0
-            );
+            PostDto postDto = PostDto.from(updatedPost);
             return ResponseEntity.ok(postDto);
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -166,27 +476,26 @@ public class PostController {
         @PathVariable Integer id,
         @RequestParam("itemType") String itemType,
         @RequestParam("content") String content,
-        @RequestParam(value="image", required=false) MultipartFile imageFile) {
+        @RequestParam(value="image", required=false) MultipartFile imageFile,
+        @RequestParam(value="latitude", required=false) Double latitude,
+        @RequestParam(value="longitude", required=false) Double longitude) {
         
         try {
-            User currentUser = getCurrUser();
+            SecurityUser currentUser = getCurrUser();
             if (!postService.isPostOwner(id, currentUser.getId())) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
             Post postDetails = new Post();
             postDetails.setItemType(ItemType.valueOf(itemType));
             postDetails.setContent(content);
+            postDetails.setLatitude(latitude);
+            postDetails.setLongitude(longitude);
             Post updatedPost = postService.updatePostWithImage(id, postDetails, currentUser.getId(), imageFile);
             
-            PostDto postDto = new PostDto(
-                updatedPost.getId(),
-                updatedPost.getUser().getId(),
-                updatedPost.getUser().getUsername(),
-                updatedPost.getItemType().name(),
-                updatedPost.getContent(),
-                updatedPost.getImage() != null && updatedPost.getImage().length > 0
-            );
+            PostDto postDto = PostDto.from(updatedPost);
             return ResponseEntity.ok(postDto);
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).build();
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(null);
         } catch (RuntimeException e) {
@@ -194,10 +503,36 @@ public class PostController {
         }
     } 
 
+    @PutMapping("/{id}/resolve")
+    public ResponseEntity<PostDto> resolvePost(@PathVariable Integer id) {
+        try {
+            SecurityUser currentUser = getCurrUser();
+            if (!postService.isPostOwner(id, currentUser.getId())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            return ResponseEntity.ok(PostDto.from(postService.resolvePost(id)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // ids is a comma-separated list; every post must belong to the current user
+    @DeleteMapping("/bulk")
+    public ResponseEntity<?> deletePosts(@RequestParam("ids") List<Integer> ids) {
+        SecurityUser currentUser = getCurrUser();
+        try {
+            int deleted = postService.deletePosts(ids, currentUser.getId());
+            return ResponseEntity.ok(Map.of("deleted", deleted));
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode())
+                .body(Map.of("error", e.getReason()));
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletePost(@PathVariable Integer id) {
         try {
-            User currentUser = getCurrUser();
+            SecurityUser currentUser = getCurrUser();
             if (!postService.isPostOwner(id, currentUser.getId())) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
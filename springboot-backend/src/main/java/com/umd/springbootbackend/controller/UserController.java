@@ -5,6 +5,7 @@ import com.umd.springbootbackend.model.SecurityUser;
 import com.umd.springbootbackend.model.User;
 import com.umd.springbootbackend.service.UserService;
 import com.umd.springbootbackend.service.SupabaseProxyService;
+import com.umd.springbootbackend.service.TokenRevocationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -12,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.WebUtils;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -27,10 +29,15 @@ public class UserController {
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
     private final UserService userService;
     private final SupabaseProxyService supabaseProxyService;
+    private final TokenRevocationService tokenRevocationService;
 
-    public UserController(UserService userService, SupabaseProxyService supabaseProxyService) {
+    public UserController(
+            UserService userService,
+            SupabaseProxyService supabaseProxyService,
+            TokenRevocationService tokenRevocationService) {
         this.userService = userService;
         this.supabaseProxyService = supabaseProxyService;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @GetMapping("/me")
@@ -98,8 +105,14 @@ public class UserController {
             // Delete all messages where this user is sender or receiver
             supabaseProxyService.deleteUserMessages(userId.longValue());
             
-            // Delete the user (posts will be cascade deleted automatically)
+            // Delete the user and their posts
             userService.deleteUser(userId);
+
+            // Refuse this token on every instance, not just where the account was deleted
+            Cookie currentToken = WebUtils.getCookie(request, "auth-token");
+            if (currentToken != null) {
+                tokenRevocationService.revoke(currentToken.getValue());
+            }
             
             // Clear the session and invalidate authentication cookie
             HttpSession session = request.getSession(false);
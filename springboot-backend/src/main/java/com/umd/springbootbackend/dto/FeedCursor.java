@@ -0,0 +1,40 @@
+package com.umd.springbootbackend.dto;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+
+// Position in the feed, which is ordered by (createdAt desc, id desc); the id breaks ties between
+// posts created in the same instant. Clients treat the string form as opaque.
+public record FeedCursor(Instant createdAt, int id) implements Comparable<FeedCursor> {
+    private static final Comparator<FeedCursor> ORDER =
+            Comparator.comparing(FeedCursor::createdAt).thenComparingInt(FeedCursor::id);
+
+    public static FeedCursor of(PostDto post) {
+        return new FeedCursor(post.getCreatedAt(), post.getId());
+    }
+
+    // Throws IllegalArgumentException for anything toString did not produce
+    public static FeedCursor parse(String cursor) {
+        int separator = cursor.lastIndexOf('_');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Malformed feed cursor");
+        }
+        try {
+            return new FeedCursor(Instant.parse(cursor.substring(0, separator)),
+                    Integer.parseInt(cursor.substring(separator + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed feed cursor", e);
+        }
+    }
+
+    @Override
+    public int compareTo(FeedCursor other) {
+        return ORDER.compare(this, other);
+    }
+
+    @Override
+    public String toString() {
+        return createdAt + "_" + id;
+    }
+}
@@ -0,0 +1,9 @@
+package com.umd.springbootbackend.dto;
+
+import com.umd.springbootbackend.model.ItemType;
+
+// Interface projection for per-type post counts
+public interface ItemTypeCount {
+    ItemType getItemType();
+    long getCount();
+}
@@ -1,9 +1,13 @@
 package com.umd.springbootbackend.dto;
 
+import com.umd.springbootbackend.model.ItemType;
+import com.umd.springbootbackend.model.Post;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.Instant;
+
 @Getter
 @Setter
 public class PostDto {
@@ -13,6 +17,12 @@ public class PostDto {
     private String content;
     private String username;
     private boolean hasImage;
+    // Content hash of the image, used as ?v= to build cacheable image URLs
+    private String imageVersion;
+    private Double latitude;
+    private Double longitude;
+    private Instant createdAt;
+    private Instant resolvedAt;
 
     public PostDto() {}
 
@@ -24,4 +34,30 @@ public class PostDto {
         this.content = content;
         this.hasImage = hasImage;
     }
-}
\ No newline at end of file
+
+    // Used by the PostRepository constructor-expression queries
+    public PostDto(Integer id, Integer userId, String username, ItemType itemType, String content, String imageKey,
+                   Double latitude, Double longitude, Instant createdAt, Instant resolvedAt) {
+        this(id, userId, username, itemType.name(), content, imageKey != null);
+        this.imageVersion = imageKey;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.createdAt = createdAt;
+        this.resolvedAt = resolvedAt;
+    }
+
+    // Maps a loaded post; its user must be fetched with it (see PostRepository.findWithUserById)
+    public static PostDto from(Post post) {
+        return new PostDto(
+                post.getId(),
+                post.getUser().getId(),
+                post.getUser().getUsername(),
+                post.getItemType(),
+                post.getContent(),
+                post.getImageKey(),
+                post.getLatitude(),
+                post.getLongitude(),
+                post.getCreatedAt(),
+                post.getResolvedAt());
+    }
+}
@@ -0,0 +1,10 @@
+package com.umd.springbootbackend.dto;
+
+import java.time.Instant;
+
+// Interface projection with just the image columns of a post, for serving the image
+public interface PostImageView {
+    String getImageKey();
+    String getImageType();
+    Instant getImageUpdatedAt();
+}
@@ -0,0 +1,11 @@
+package com.umd.springbootbackend.dto;
+
+import com.umd.springbootbackend.model.ItemType;
+
+// Interface projection for loading the spatial index without loading Post entities
+public interface PostLocationView {
+    Integer getId();
+    ItemType getItemType();
+    Double getLatitude();
+    Double getLongitude();
+}
@@ -0,0 +1,24 @@
+package com.umd.springbootbackend.dto;
+
+import com.umd.springbootbackend.model.ItemType;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+public class PostMatchDto {
+    private PostDto post;
+    private double score;
+
+    public PostMatchDto() {}
+
+    // Used by the PostMatchRepository constructor-expression query
+    public PostMatchDto(Integer id, Integer userId, String username, ItemType itemType, String content, String imageKey,
+                        Double latitude, Double longitude, Instant createdAt, Instant resolvedAt, double score) {
+        this.post = new PostDto(id, userId, username, itemType, content, imageKey, latitude, longitude,
+                createdAt, resolvedAt);
+        this.score = score;
+    }
+}
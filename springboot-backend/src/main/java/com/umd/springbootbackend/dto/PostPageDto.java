@@ -0,0 +1,27 @@
+package com.umd.springbootbackend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.umd.springbootbackend.model.ItemType;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+public class PostPageDto {
+    private List<PostDto> posts;
+    // FeedCursor to pass as "after" for the next page, null when this is the last page
+    private String nextCursor;
+    // Post count per item type, only included by the filter endpoint
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<ItemType, Long> facets;
+
+    public PostPageDto() {}
+
+    public PostPageDto(List<PostDto> posts, String nextCursor) {
+        this.posts = posts;
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,11 @@
+package com.umd.springbootbackend.dto;
+
+import com.umd.springbootbackend.model.ItemType;
+
+// Interface projection for building in-memory indexes without loading Post entities
+public interface PostTextView {
+    Integer getId();
+    Integer getUserId();
+    ItemType getItemType();
+    String getContent();
+}
@@ -0,0 +1,74 @@
+package com.umd.springbootbackend.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * A post moved out of the posts table by PostArchiver, either because it was
+ * resolved or because it aged out. Keeps the original id and a plain user id,
+ * so archived rows survive the user being deleted. The image stays in the
+ * ImageStore under imageKey.
+ */
+@Entity
+@Table(name="posts_archive", indexes={
+        @Index(name="idx_posts_archive_user_id", columnList="user_id"),
+        @Index(name="idx_posts_archive_archived_at", columnList="archived_at")
+})
+public class ArchivedPost {
+    @Id
+    private Integer id;
+    @Column(name="user_id")
+    private Integer userId;
+    @Enumerated(EnumType.STRING)
+    private ItemType itemType;
+    private String content;
+    private String imageType;
+    @Column(name="image_key", length=64)
+    private String imageKey;
+    private Long imageSize;
+    private Instant imageUpdatedAt;
+    private Double latitude;
+    private Double longitude;
+    @Column(name="created_at")
+    private Instant createdAt;
+    @Column(name="resolved_at")
+    private Instant resolvedAt;
+    @Column(name="archived_at", nullable=false)
+    private Instant archivedAt;
+
+    public ArchivedPost() {
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public ItemType getItemType() {
+        return itemType;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public String getImageKey() {
+        return imageKey;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getResolvedAt() {
+        return resolvedAt;
+    }
+
+    public Instant getArchivedAt() {
+        return archivedAt;
+    }
+}
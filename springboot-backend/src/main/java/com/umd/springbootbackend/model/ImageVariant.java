@@ -0,0 +1,30 @@
+package com.umd.springbootbackend.model;
+
+/**
+ * Re-encoded renditions of an uploaded image. Variants are derived from the
+ * original content, so they are stored under the original's key.
+ * A maxWidth of 0 keeps the original dimensions.
+ */
+public enum ImageVariant {
+    THUMB(200),
+    MEDIUM(600),
+    FULL(0);
+
+    private final int maxWidth;
+
+    ImageVariant(int maxWidth) {
+        this.maxWidth = maxWidth;
+    }
+
+    public int getMaxWidth() {
+        return maxWidth;
+    }
+
+    public String getName() {
+        return name().toLowerCase();
+    }
+
+    public static ImageVariant fromName(String name) {
+        return valueOf(name.toUpperCase());
+    }
+}
@@ -0,0 +1,114 @@
+package com.umd.springbootbackend.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * An email waiting to be sent, written in the same transaction as the change
+ * that caused it (such as a new user) and delivered later by EmailDispatcher.
+ * Failed sends are retried at nextAttemptAt until they run out of attempts
+ * and are marked DEAD.
+ */
+@Entity
+@Table(name="email_outbox", indexes=@Index(name="idx_email_outbox_due", columnList="status, next_attempt_at"))
+public class OutboxEmail {
+    public enum Status {
+        PENDING,
+        SENT,
+        DEAD
+    }
+
+    @Id
+    @GeneratedValue(strategy=GenerationType.IDENTITY)
+    private Long id;
+    @Column(nullable=false)
+    private String recipient;
+    @Column(nullable=false)
+    private String subject;
+    @Column(nullable=false, columnDefinition="text")
+    private String body;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable=false, length=16)
+    private Status status;
+    private int attempts;
+    @Column(name="next_attempt_at", nullable=false)
+    private Instant nextAttemptAt;
+    @Column(name="created_at", nullable=false, updatable=false)
+    private Instant createdAt;
+    @Column(name="sent_at")
+    private Instant sentAt;
+    @Column(name="last_error", length=500)
+    private String lastError;
+
+    public OutboxEmail() {
+    }
+
+    public OutboxEmail(String recipient, String subject, String body) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.status = Status.PENDING;
+        this.createdAt = Instant.now();
+        this.nextAttemptAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public Instant getSentAt() {
+        return sentAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    // Holds the email for this long while a dispatcher sends it, so others skip it
+    public void claimUntil(Instant until) {
+        this.nextAttemptAt = until;
+    }
+
+    public void markSent(Instant now) {
+        this.status = Status.SENT;
+        this.attempts++;
+        this.sentAt = now;
+        this.lastError = null;
+    }
+
+    // Schedules another attempt at retryAt, or gives up when retryAt is null
+    public void markFailed(String error, Instant retryAt) {
+        this.attempts++;
+        this.lastError = error != null && error.length() > 500 ? error.substring(0, 500) : error;
+        if (retryAt == null) {
+            this.status = Status.DEAD;
+        } else {
+            this.nextAttemptAt = retryAt;
+        }
+    }
+}
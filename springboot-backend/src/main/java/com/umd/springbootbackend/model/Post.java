@@ -3,13 +3,22 @@ package com.umd.springbootbackend.model;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 
+import java.time.Instant;
 import java.util.Objects;
 
 @Entity
-@Table(name="posts")
+@Table(name="posts", indexes={
+        @Index(name="idx_posts_user_id", columnList="user_id"),
+        @Index(name="idx_posts_item_type", columnList="item_type"),
+        // Feed keyset order; also serves the archiver's created_at range scan
+        @Index(name="idx_posts_created_at_id", columnList="created_at, id"),
+        @Index(name="idx_posts_resolved_at", columnList="resolved_at")
+})
 public class Post {
+    // Pooled sequence so inserts can be batched; one round-trip reserves 50 ids
     @Id
-    @GeneratedValue(strategy=GenerationType.IDENTITY)
+    @GeneratedValue(strategy=GenerationType.SEQUENCE, generator="posts_seq")
+    @SequenceGenerator(name="posts_seq", sequenceName="posts_seq", allocationSize=50)
     private Integer id;
     @Enumerated(EnumType.STRING)
     private ItemType itemType;
@@ -20,8 +29,20 @@ public class Post {
     private User user;
 
     private String imageType;
-    @Lob
-    private byte[] image;
+    // SHA-256 key of the image in the ImageStore; the bytes live outside the database
+    @Column(name="image_key", length=64)
+    private String imageKey;
+    private Long imageSize;
+    private Instant imageUpdatedAt;
+    // Where the item was lost or found, in WGS84 degrees; both set or both null
+    private Double latitude;
+    private Double longitude;
+    // Set on insert; rows from before this column existed are backfilled by PostArchiver
+    @Column(name="created_at", updatable=false)
+    private Instant createdAt;
+    // When the owner marked the item as returned; resolved posts are archived after a grace period
+    @Column(name="resolved_at")
+    private Instant resolvedAt;
 
 
     public Post() {
@@ -38,6 +59,13 @@ public class Post {
         this.user = user;
     }
 
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) {
+            createdAt = Instant.now();
+        }
+    }
+
     public Integer getId() {
         return id;
     }
@@ -70,12 +98,60 @@ public class Post {
         this.itemType = itemType;
     }
 
-    public byte[] getImage() {
-        return image;
+    public String getImageKey() {
+        return imageKey;
+    }
+
+    public void setImageKey(String imageKey) {
+        this.imageKey = imageKey;
+    }
+
+    public Long getImageSize() {
+        return imageSize;
+    }
+
+    public void setImageSize(Long imageSize) {
+        this.imageSize = imageSize;
+    }
+
+    public Instant getImageUpdatedAt() {
+        return imageUpdatedAt;
+    }
+
+    public void setImageUpdatedAt(Instant imageUpdatedAt) {
+        this.imageUpdatedAt = imageUpdatedAt;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getResolvedAt() {
+        return resolvedAt;
     }
 
-    public void setImage(byte[] image) {
-        this.image = image;
+    public void setResolvedAt(Instant resolvedAt) {
+        this.resolvedAt = resolvedAt;
     }
 
     public String getImageType() {
@@ -0,0 +1,49 @@
+package com.umd.springbootbackend.model;
+
+import jakarta.persistence.*;
+
+/**
+ * A candidate post that may be the same item as the post it is attached to,
+ * as scored by the PostMatchingEngine. Stored in both directions. Ids come
+ * from a pooled sequence so the matches of a post are inserted in batches.
+ */
+@Entity
+@Table(name="post_matches",
+        uniqueConstraints=@UniqueConstraint(columnNames={"post_id", "candidate_id"}),
+        indexes=@Index(name="idx_post_matches_candidate_id", columnList="candidate_id"))
+public class PostMatch {
+    @Id
+    @GeneratedValue(strategy=GenerationType.SEQUENCE, generator="post_matches_seq")
+    @SequenceGenerator(name="post_matches_seq", sequenceName="post_matches_seq", allocationSize=50)
+    private Integer id;
+    @Column(name="post_id", nullable=false)
+    private Integer postId;
+    @Column(name="candidate_id", nullable=false)
+    private Integer candidateId;
+    private double score;
+
+    public PostMatch() {
+    }
+
+    public PostMatch(Integer postId, Integer candidateId, double score) {
+        this.postId = postId;
+        this.candidateId = candidateId;
+        this.score = score;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public Integer getPostId() {
+        return postId;
+    }
+
+    public Integer getCandidateId() {
+        return candidateId;
+    }
+
+    public double getScore() {
+        return score;
+    }
+}
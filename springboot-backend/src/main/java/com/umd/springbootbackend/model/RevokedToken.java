@@ -0,0 +1,46 @@
+package com.umd.springbootbackend.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * A JWT, identified by its jti claim, that must be refused before it expires,
+ * such as one that was logged out. Kept until the token's own expiry, after
+ * which it would be refused anyway.
+ */
+@Entity
+@Table(name="revoked_tokens", indexes={
+        @Index(name="idx_revoked_tokens_expires_at", columnList="expires_at"),
+        @Index(name="idx_revoked_tokens_revoked_at", columnList="revoked_at")
+})
+public class RevokedToken {
+    @Id
+    @Column(length=64)
+    private String jti;
+    @Column(name="expires_at", nullable=false)
+    private Instant expiresAt;
+    @Column(name="revoked_at", nullable=false)
+    private Instant revokedAt;
+
+    public RevokedToken() {
+    }
+
+    public RevokedToken(String jti, Instant expiresAt, Instant revokedAt) {
+        this.jti = jti;
+        this.expiresAt = expiresAt;
+        this.revokedAt = revokedAt;
+    }
+
+    public String getJti() {
+        return jti;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public Instant getRevokedAt() {
+        return revokedAt;
+    }
+}
@@ -6,12 +6,24 @@ import java.util.Collection;
 import java.util.List;
 
 public class SecurityUser implements UserDetails {
+    private final Integer id;
+    private final String username;
+    // Null when the principal was built from token claims without loading the user
     private final User user;
 
     public SecurityUser(User user) {
+        this.id = user.getId();
+        this.username = user.getUsername();
         this.user = user;
     }
 
+    // Principal for an already verified token; holds only what its claims say
+    public SecurityUser(Integer id, String username) {
+        this.id = id;
+        this.username = username;
+        this.user = null;
+    }
+
     public User getUser() {
         return user;
     }
@@ -23,16 +35,16 @@ public class SecurityUser implements UserDetails {
 
     @Override
     public String getPassword() {
-        return user.getPassword();
+        return user != null ? user.getPassword() : null;
     }
 
     public Integer getId() {
-        return user.getId();
+        return id;
     }
 
     @Override
     public String getUsername() {
-        return user.getUsername();
+        return username;
     }
 
     @Override
@@ -17,6 +17,8 @@ public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
+    // Unique, which also gives the username lookups their index
+    @Column(unique = true)
     private String username;
     @Column(unique = true)
     private String email;
@@ -0,0 +1,23 @@
+package com.umd.springbootbackend.repo;
+
+import com.umd.springbootbackend.model.ArchivedPost;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+
+@Repository
+public interface ArchivedPostRepository extends JpaRepository<ArchivedPost, Integer> {
+    // Copies posts into the archive in one INSERT ... SELECT; the caller deletes them afterwards
+    @Modifying
+    @Query("insert into ArchivedPost (id, userId, itemType, content, imageType, imageKey, imageSize, "
+            + "imageUpdatedAt, latitude, longitude, createdAt, resolvedAt, archivedAt) "
+            + "select p.id, p.user.id, p.itemType, p.content, p.imageType, p.imageKey, p.imageSize, "
+            + "p.imageUpdatedAt, p.latitude, p.longitude, p.createdAt, p.resolvedAt, :archivedAt "
+            + "from Post p where p.id in :ids")
+    int copyFromPosts(@Param("ids") Collection<Integer> ids, @Param("archivedAt") Instant archivedAt);
+}
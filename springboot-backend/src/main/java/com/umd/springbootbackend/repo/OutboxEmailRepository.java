@@ -0,0 +1,26 @@
+package com.umd.springbootbackend.repo;
+
+import com.umd.springbootbackend.model.OutboxEmail;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, Long> {
+    // Locks the rows it returns and skips rows another dispatcher has locked (SKIP LOCKED
+    // on PostgreSQL), so instances sharing the database never claim the same email
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from OutboxEmail e where e.status = com.umd.springbootbackend.model.OutboxEmail.Status.PENDING "
+            + "and e.nextAttemptAt <= :now order by e.nextAttemptAt")
+    List<OutboxEmail> lockDue(@Param("now") Instant now, Limit limit);
+}
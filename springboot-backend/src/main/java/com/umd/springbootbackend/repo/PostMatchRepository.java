@@ -0,0 +1,38 @@
+package com.umd.springbootbackend.repo;
+
+import com.umd.springbootbackend.dto.PostMatchDto;
+import com.umd.springbootbackend.model.PostMatch;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PostMatchRepository extends JpaRepository<PostMatch, Integer> {
+    @Query("select new com.umd.springbootbackend.dto.PostMatchDto("
+            + "p.id, u.id, u.username, p.itemType, p.content, p.imageKey, p.latitude, p.longitude, "
+            + "p.createdAt, p.resolvedAt, m.score) "
+            + "from PostMatch m join Post p on p.id = m.candidateId join p.user u "
+            + "where m.postId = :postId order by m.score desc")
+    List<PostMatchDto> findMatches(@Param("postId") Integer postId, Limit limit);
+
+    // Keeps only the topK best-scored matches of each given post
+    @Modifying
+    @Transactional
+    @Query(value="delete from post_matches where post_id in (:postIds) and id not in ("
+            + "select id from (select id, row_number() over (partition by post_id order by score desc, id) as match_rank "
+            + "from post_matches where post_id in (:postIds)) ranked where match_rank <= :topK)",
+            nativeQuery=true)
+    void trimToTopK(@Param("postIds") Collection<Integer> postIds, @Param("topK") int topK);
+
+    @Modifying
+    @Transactional
+    @Query("delete from PostMatch m where m.postId in :postIds or m.candidateId in :postIds")
+    void deleteAllInvolving(@Param("postIds") Collection<Integer> postIds);
+}
@@ -1,16 +1,114 @@
 package com.umd.springbootbackend.repo;
 
+import com.umd.springbootbackend.dto.ItemTypeCount;
+import com.umd.springbootbackend.dto.PostDto;
+import com.umd.springbootbackend.dto.PostImageView;
+import com.umd.springbootbackend.dto.PostLocationView;
+import com.umd.springbootbackend.dto.PostTextView;
 import com.umd.springbootbackend.model.ItemType;
 import com.umd.springbootbackend.model.Post;
 import com.umd.springbootbackend.model.User;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Integer> {
+    // Listing projection: selects only the columns a PostDto needs; hasImage comes from the image key
+    String POST_DTO_SELECT = "select new com.umd.springbootbackend.dto.PostDto("
+            + "p.id, u.id, u.username, p.itemType, p.content, p.imageKey, p.latitude, p.longitude, "
+            + "p.createdAt, p.resolvedAt) "
+            + "from Post p join p.user u";
+    // Rows pulled per JDBC round-trip when streaming the whole table
+    String EXPORT_FETCH_SIZE = "500";
+
     List<Post> findByUser(User user);
     List<Post> findByItemType(ItemType itemType);
     List<Post> findByUserId(Integer userId);
+
+    // Ownership check without loading the post
+    boolean existsByIdAndUserId(Integer id, Integer userId);
+
+    @Query("select p.imageKey as imageKey, p.imageType as imageType, p.imageUpdatedAt as imageUpdatedAt "
+            + "from Post p where p.id = :id")
+    Optional<PostImageView> findImageById(@Param("id") Integer id);
+
+    // Loads the author in the same select, for write paths that map the result to a PostDto
+    @EntityGraph(attributePaths = "user")
+    Optional<Post> findWithUserById(Integer id);
+
+    @Query(POST_DTO_SELECT)
+    List<PostDto> findAllDtos();
+
+    // Keyset pagination, newest first. Never uses OFFSET: the next page starts below the last
+    // (createdAt, id) seen, so each page reads the created_at index from where the last one stopped.
+    // Ids are not in creation order, as every instance reserves its own block of the pooled sequence.
+    @Query(POST_DTO_SELECT + " order by p.createdAt desc, p.id desc")
+    List<PostDto> findFeedPage(Limit limit);
+
+    @Query(POST_DTO_SELECT + " where (p.createdAt, p.id) < (:createdAt, :id) order by p.createdAt desc, p.id desc")
+    List<PostDto> findFeedPageAfter(@Param("createdAt") Instant createdAt, @Param("id") Integer id, Limit limit);
+
+    @Query(POST_DTO_SELECT + " where p.itemType in :types order by p.createdAt desc, p.id desc")
+    List<PostDto> findFeedPageByTypes(@Param("types") Collection<ItemType> types, Limit limit);
+
+    @Query(POST_DTO_SELECT + " where p.itemType in :types and (p.createdAt, p.id) < (:createdAt, :id) "
+            + "order by p.createdAt desc, p.id desc")
+    List<PostDto> findFeedPageByTypesAfter(@Param("types") Collection<ItemType> types,
+            @Param("createdAt") Instant createdAt, @Param("id") Integer id, Limit limit);
+
+    // Joins users on the indexed username instead of loading every post and filtering in Java
+    @Query(POST_DTO_SELECT + " where u.username = :username")
+    List<PostDto> findDtosByUsername(@Param("username") String username);
+
+    @Query(POST_DTO_SELECT + " where u.id = :userId")
+    List<PostDto> findDtosByUserId(@Param("userId") Integer userId);
+
+    @Query(POST_DTO_SELECT + " where p.itemType = :itemType")
+    List<PostDto> findDtosByItemType(@Param("itemType") ItemType itemType);
+
+    @Query(POST_DTO_SELECT + " where p.id in :ids")
+    List<PostDto> findDtosByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // Cursor over every post in id order; must be consumed inside a transaction and closed
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(POST_DTO_SELECT + " order by p.id")
+    Stream<PostDto> streamAllDtos();
+
+    // Posts resolved before resolvedBefore or created before createdBefore, oldest first
+    @Query("select p.id from Post p where p.resolvedAt < :resolvedBefore or p.createdAt < :createdBefore "
+            + "order by p.id")
+    List<Integer> findArchivableIds(
+            @Param("resolvedBefore") Instant resolvedBefore, @Param("createdBefore") Instant createdBefore, Limit limit);
+
+    @Modifying
+    @Query("update Post p set p.createdAt = :now where p.createdAt is null")
+    int backfillCreatedAt(@Param("now") Instant now);
+
+    @Query("select p.itemType as itemType, count(p) as count from Post p group by p.itemType")
+    List<ItemTypeCount> countByItemType();
+
+    // Id, author, type and content of every post, for building the in-memory indexes
+    @Query("select p.id as id, p.user.id as userId, p.itemType as itemType, p.content as content from Post p")
+    List<PostTextView> findAllTextViews();
+
+    @Query("select p.id as id, p.itemType as itemType, p.latitude as latitude, p.longitude as longitude "
+            + "from Post p where p.latitude is not null and p.longitude is not null")
+    List<PostLocationView> findAllLocations();
 }
@@ -6,13 +6,14 @@ import com.umd.springbootbackend.dto.VerifyUserDto;
 import com.umd.springbootbackend.model.SecurityUser;
 import com.umd.springbootbackend.model.User;
 import com.umd.springbootbackend.repo.UserRepository;
-import jakarta.mail.MessagingException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -26,20 +27,26 @@ public class AuthenticationService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
 
     public AuthenticationService(
             UserRepository userRepository,
             PasswordEncoder passwordEncoder,
             AuthenticationManager authenticationManager,
-            EmailService emailService
+            EmailService emailService,
+            PlatformTransactionManager transactionManager
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.emailService = emailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     public SecurityUser signup(RegisterUserDto input) {
+        if (userRepository.existsByUsername(input.getUsername())) {
+            throw new RuntimeException("Username is already taken");
+        }
         User user = new User();
         user.setUsername(input.getUsername());
         user.setEmail(input.getEmail());
@@ -49,8 +56,13 @@ public class AuthenticationService {
         user.setVerificationCode(generateVerificationCode());
         user.setVerificationCodeExpiresAt(LocalDateTime.now().plusMinutes(10));
 
-        User savedUser = userRepository.save(user);
-        sendVerificationEmail(savedUser);
+        // The user row and its verification email commit together. The password is
+        // hashed beforehand so no connection is held while BCrypt runs.
+        User savedUser = transactionTemplate.execute(status -> {
+            User saved = userRepository.save(user);
+            queueVerificationEmail(saved);
+            return saved;
+        });
         return new SecurityUser(savedUser);
 
     }
@@ -110,23 +122,22 @@ public class AuthenticationService {
             }
             user.setVerificationCode(generateVerificationCode());
             user.setVerificationCodeExpiresAt(LocalDateTime.now().plusMinutes(10));
-            userRepository.save(user);
-            sendVerificationEmail(user);
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.save(user);
+                queueVerificationEmail(user);
+            });
         } else {
             throw new RuntimeException("User not found with email: " + email);
         }
     }
 
-    public void sendVerificationEmail(User user) {
+    // Written to the email outbox and sent in the background by EmailDispatcher
+    public void queueVerificationEmail(User user) {
         String subject = "Account verification";
         String verificationCode = "VERIFICATION_CODE " + user.getVerificationCode();
         String body = "Please verify your account using the following code: " + verificationCode +
                 "\nThis code is valid for 10 minutes.";
-        try {
-            emailService.sendVerificationEmail(user.getEmail(), subject, body);
-        } catch (MessagingException e) {
-            throw new RuntimeException("Failed to send verification email", e);
-        }
+        emailService.queueVerificationEmail(user.getEmail(), subject, body);
     }
 
     private String generateVerificationCode() {
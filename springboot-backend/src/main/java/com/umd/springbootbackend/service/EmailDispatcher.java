@@ -0,0 +1,137 @@
+package com.umd.springbootbackend.service;
+
+import com.umd.springbootbackend.model.OutboxEmail;
+import com.umd.springbootbackend.repo.OutboxEmailRepository;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delivers the email outbox. Each run claims due emails in batches of
+ * email.outbox.batch-size and sends a batch over a single SMTP connection,
+ * outside any transaction, then records the outcome of every email. Failed
+ * emails are retried with exponential backoff from email.outbox.initial-backoff
+ * up to email.outbox.max-backoff, and marked DEAD after max-attempts.
+ */
+@Component
+public class EmailDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(EmailDispatcher.class);
+
+    private final OutboxEmailRepository outboxEmailRepository;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration claimTimeout;
+
+    public EmailDispatcher(
+            OutboxEmailRepository outboxEmailRepository,
+            EmailService emailService,
+            PlatformTransactionManager transactionManager,
+            @Value("${email.outbox.batch-size}") int batchSize,
+            @Value("${email.outbox.max-attempts}") int maxAttempts,
+            @Value("${email.outbox.initial-backoff}") Duration initialBackoff,
+            @Value("${email.outbox.max-backoff}") Duration maxBackoff,
+            @Value("${email.outbox.claim-timeout}") Duration claimTimeout) {
+        this.outboxEmailRepository = outboxEmailRepository;
+        this.emailService = emailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.claimTimeout = claimTimeout;
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval}")
+    public void dispatch() {
+        List<OutboxEmail> batch;
+        do {
+            batch = claimBatch();
+            if (!batch.isEmpty()) {
+                send(batch);
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    // Pushes nextAttemptAt past the send, so a crash mid-batch only delays these emails
+    private List<OutboxEmail> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<OutboxEmail> due = outboxEmailRepository.lockDue(now, Limit.of(batchSize));
+            due.forEach(email -> email.claimUntil(now.plus(claimTimeout)));
+            return outboxEmailRepository.saveAll(due);
+        });
+    }
+
+    private void send(List<OutboxEmail> batch) {
+        Map<MimeMessage, OutboxEmail> emails = new HashMap<>();
+        Map<OutboxEmail, String> failures = new HashMap<>();
+        for (OutboxEmail email : batch) {
+            try {
+                emails.put(emailService.createMessage(email.getRecipient(), email.getSubject(), email.getBody()), email);
+            } catch (MessagingException e) {
+                failures.put(email, e.getMessage());
+            }
+        }
+        try {
+            if (!emails.isEmpty()) {
+                emailService.sendAll(emails.keySet());
+            }
+        } catch (MailSendException e) {
+            // Only the messages listed failed; the rest of the batch went out
+            e.getFailedMessages().forEach((message, cause) -> {
+                OutboxEmail email = emails.get(message);
+                if (email != null) {
+                    failures.put(email, cause.getMessage());
+                }
+            });
+            if (e.getFailedMessages().isEmpty()) {
+                emails.values().forEach(email -> failures.put(email, e.getMessage()));
+            }
+        } catch (MailException e) {
+            // Could not connect or authenticate; nothing was sent
+            emails.values().forEach(email -> failures.put(email, e.getMessage()));
+        }
+
+        Instant now = Instant.now();
+        for (OutboxEmail email : batch) {
+            if (failures.containsKey(email)) {
+                email.markFailed(failures.get(email), nextAttempt(email.getAttempts() + 1, now));
+            } else {
+                email.markSent(now);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> outboxEmailRepository.saveAll(batch));
+
+        if (!failures.isEmpty()) {
+            logger.warn("Failed to send {} of {} emails", failures.size(), batch.size());
+        }
+    }
+
+    // Null once this attempt was the last one allowed
+    private Instant nextAttempt(int attempts, Instant now) {
+        if (attempts >= maxAttempts) {
+            return null;
+        }
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+        return now.plus(backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff);
+    }
+}
@@ -1,26 +1,42 @@
 package com.umd.springbootbackend.service;
 
+import com.umd.springbootbackend.model.OutboxEmail;
+import com.umd.springbootbackend.repo.OutboxEmailRepository;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+
 @Service
 public class EmailService {
-    @Autowired
-    private JavaMailSender emailSender;
+    private final JavaMailSender emailSender;
+    private final OutboxEmailRepository outboxEmailRepository;
+
+    public EmailService(JavaMailSender emailSender, OutboxEmailRepository outboxEmailRepository) {
+        this.emailSender = emailSender;
+        this.outboxEmailRepository = outboxEmailRepository;
+    }
 
-    public void sendVerificationEmail(String to, String subject, String body) throws MessagingException {
+    // Adds the email to the outbox as part of the caller's transaction; EmailDispatcher sends it
+    public void queueVerificationEmail(String to, String subject, String body) {
+        outboxEmailRepository.save(new OutboxEmail(to, subject, body));
+    }
+
+    public MimeMessage createMessage(String to, String subject, String body) throws MessagingException {
         MimeMessage mimeMessage = emailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true);
 
         helper.setTo(to);
         helper.setSubject(subject);
         helper.setText(body, false);
-
-        emailSender.send(mimeMessage);
+        return mimeMessage;
     }
 
+    // Sends every message over one SMTP connection. A MailSendException lists the ones that failed.
+    public void sendAll(Collection<MimeMessage> messages) {
+        emailSender.send(messages.toArray(MimeMessage[]::new));
+    }
 }
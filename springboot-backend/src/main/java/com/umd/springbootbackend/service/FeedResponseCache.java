@@ -0,0 +1,158 @@
+package com.umd.springbootbackend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.umd.springbootbackend.dto.FeedCursor;
+import com.umd.springbootbackend.model.ItemType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Caches feed responses as ready-to-send JSON bytes plus a gzipped copy,
+ * so repeated feed loads skip the database, DTO mapping and Jackson.
+ *
+ * Every entry records which posts it covers (item types and a range of the feed order).
+ * A PostsChangedEvent evicts only the entries that could contain a changed
+ * post; entries carrying facet counts are also evicted whenever the counts
+ * change, including when a reconcile corrects them. Eviction is LRU, bounded by the total size of the cached bytes.
+ */
+@Component
+public class FeedResponseCache {
+    private final ObjectMapper objectMapper;
+    private final long maxBytes;
+    // Bumped on every invalidation; a load that overlapped one is not cached
+    private final AtomicLong generation = new AtomicLong();
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    public record CachedResponse(byte[] json, byte[] gzip) {}
+
+    // Posts a cached response may contain: those of the given types at or above oldest and below
+    // before in the feed order; a null bound is open
+    public record Scope(EnumSet<ItemType> types, FeedCursor oldest, FeedCursor before, boolean includesFacets) {
+        public static Scope everything() {
+            return new Scope(EnumSet.allOf(ItemType.class), null, null, false);
+        }
+    }
+
+    public record Loaded(Object body, Scope scope) {}
+
+    private record Entry(CachedResponse response, Scope scope) {
+        long size() {
+            return response.json().length + response.gzip().length;
+        }
+    }
+
+    public FeedResponseCache(ObjectMapper objectMapper, @Value("${feed-cache.max-size}") DataSize maxSize) {
+        this.objectMapper = objectMapper;
+        this.maxBytes = maxSize.toBytes();
+    }
+
+    public CachedResponse getOrLoad(String key, Supplier<Loaded> loader) {
+        synchronized (this) {
+            Entry cached = entries.get(key);
+            if (cached != null) {
+                return cached.response();
+            }
+        }
+
+        long loadGeneration = generation.get();
+        Loaded loaded = loader.get();
+        CachedResponse response = serialize(loaded.body());
+        Entry entry = new Entry(response, loaded.scope());
+
+        synchronized (this) {
+            if (generation.get() == loadGeneration && entry.size() <= maxBytes) {
+                Entry previous = entries.put(key, entry);
+                if (previous != null) {
+                    totalBytes -= previous.size();
+                }
+                totalBytes += entry.size();
+                evictOverflow();
+            }
+        }
+        return response;
+    }
+
+    @EventListener
+    public synchronized void onPostsChanged(PostsChangedEvent event) {
+        generation.incrementAndGet();
+        boolean countsChanged = event.changes().stream().anyMatch(change ->
+                change.type() != PostChangedEvent.ChangeType.UPDATED
+                        || (change.previousItemType() != null && change.previousItemType() != change.itemType()));
+
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if ((entry.scope().includesFacets() && countsChanged)
+                    || event.changes().stream().anyMatch(change -> covers(entry.scope(), change))) {
+                totalBytes -= entry.size();
+                it.remove();
+            }
+        }
+    }
+
+    // Drop every entry carrying facet counts, for when the counts changed without a post event
+    public synchronized void evictFacets() {
+        generation.incrementAndGet();
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.scope().includesFacets()) {
+                totalBytes -= entry.size();
+                it.remove();
+            }
+        }
+    }
+
+    private static boolean covers(Scope scope, PostChangedEvent event) {
+        boolean typeMatches = scope.types().contains(event.itemType())
+                || (event.previousItemType() != null && scope.types().contains(event.previousItemType()));
+        if (!typeMatches) {
+            return false;
+        }
+        // Posts not yet backfilled with a creation time could be anywhere
+        if (event.createdAt() == null) {
+            return true;
+        }
+        FeedCursor position = new FeedCursor(event.createdAt(), event.postId());
+        return (scope.oldest() == null || position.compareTo(scope.oldest()) >= 0)
+                && (scope.before() == null || position.compareTo(scope.before()) < 0);
+    }
+
+    // Callers hold the monitor
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            totalBytes -= it.next().getValue().size();
+            it.remove();
+        }
+    }
+
+    private CachedResponse serialize(Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(json);
+            }
+            return new CachedResponse(json, compressed.toByteArray());
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize feed response", e);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to compress feed response", e);
+        }
+    }
+}
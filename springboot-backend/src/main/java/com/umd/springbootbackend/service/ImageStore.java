@@ -0,0 +1,37 @@
+package com.umd.springbootbackend.service;
+
+import com.umd.springbootbackend.model.ImageVariant;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Blob storage for post images. Images are content-addressed: the key is the
+ * hex SHA-256 of the bytes, so storing the same photo twice yields the same key
+ * and only one copy on disk.
+ */
+public interface ImageStore {
+
+    /**
+     * Streams the content into the store and returns its key. Fails with
+     * ImageTooLargeException as soon as more than maxBytes have been read.
+     */
+    String store(InputStream content, long maxBytes) throws IOException;
+
+    /**
+     * Returns a readable resource for the key, or empty if nothing is stored under it.
+     */
+    Optional<Resource> load(String key);
+
+    /**
+     * Stores a rendition of the image with the given key.
+     */
+    void storeVariant(String key, ImageVariant variant, InputStream content) throws IOException;
+
+    /**
+     * Returns the rendition if it has been generated, or empty otherwise.
+     */
+    Optional<Resource> loadVariant(String key, ImageVariant variant);
+}
@@ -0,0 +1,12 @@
+package com.umd.springbootbackend.service;
+
+import java.io.IOException;
+
+/**
+ * Thrown by an ImageStore when an upload turns out to be larger than allowed.
+ */
+public class ImageTooLargeException extends IOException {
+    public ImageTooLargeException(long maxBytes) {
+        super("Image exceeds the maximum size of " + maxBytes + " bytes");
+    }
+}
@@ -0,0 +1,343 @@
+package com.umd.springbootbackend.service;
+
+import com.umd.springbootbackend.model.ImageVariant;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates the resized renditions of uploaded images in the background.
+ * Each upload is decoded once and re-encoded as JPEG for every ImageVariant;
+ * re-encoding writes no metadata, so EXIF (including GPS) is stripped after
+ * the EXIF orientation has been applied to the pixels.
+ *
+ * Only variants are ever served, never the uploaded file, so EXIF never
+ * leaves the server. Uploads are checked with canDecode before they are
+ * stored; images that still fail to decode are remembered as unprocessable.
+ * Any other failure (a store error, a full disk, running out of memory) is
+ * retried with exponential backoff.
+ *
+ * Work runs on a fixed-size pool with a bounded queue. When the queue is
+ * full on upload, the uploading request thread does the work itself, which
+ * slows uploads down instead of letting pending images pile up on the heap.
+ * Requests from the read path are dropped instead and asked for again later.
+ */
+@Service
+public class ImageVariantService {
+    private static final Logger logger = LoggerFactory.getLogger(ImageVariantService.class);
+    // Refuse to decode anything larger than this (about 200 MB as 32-bit pixels)
+    private static final long MAX_PIXELS = 50_000_000L;
+    private static final float JPEG_QUALITY = 0.85f;
+    private static final Duration MAX_RETRY_DELAY = Duration.ofMinutes(5);
+
+    private final ImageStore imageStore;
+    private final ThreadPoolExecutor executor;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    // Stored images that could not be decoded; they have no variants and are never retried
+    private final Set<String> unprocessable = ConcurrentHashMap.newKeySet();
+    // Images whose last attempt failed for another reason, until an attempt succeeds
+    private final Map<String, Failure> failures = new ConcurrentHashMap<>();
+
+    private record Failure(int attempts, Instant retryAt) {}
+
+    public ImageVariantService(
+            ImageStore imageStore,
+            @Value("${image.variants.threads}") int threads,
+            @Value("${image.variants.queue-capacity}") int queueCapacity) {
+        this.imageStore = imageStore;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-variants-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Queue generation of every variant for a newly stored image, unless it is already done or
+    // pending. When the queue is full the calling thread generates them itself.
+    public void submit(String key) {
+        enqueue(key, true);
+    }
+
+    // Like submit, for the read path: never does the work on the calling thread. When the
+    // queue is full the request is dropped; the caller answers 202 and the client asks again.
+    public void request(String key) {
+        enqueue(key, false);
+    }
+
+    private void enqueue(String key, boolean callerRunsWhenFull) {
+        Failure failure = failures.get(key);
+        if (unprocessable.contains(key)
+                || (failure != null && Instant.now().isBefore(failure.retryAt()))
+                || imageStore.loadVariant(key, ImageVariant.THUMB).isPresent()
+                || !inFlight.add(key)) {
+            return;
+        }
+        Runnable task = () -> {
+            try {
+                generateVariants(key);
+                failures.remove(key);
+            } catch (Exception | OutOfMemoryError e) {
+                Failure next = failures.merge(key, new Failure(1, retryAt(1)),
+                        (previous, ignored) -> new Failure(previous.attempts() + 1, retryAt(previous.attempts() + 1)));
+                logger.warn("Failed to generate image variants (attempt {}), retrying after {}",
+                        next.attempts(), next.retryAt(), e);
+            } finally {
+                inFlight.remove(key);
+            }
+        };
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            if (callerRunsWhenFull && !executor.isShutdown()) {
+                task.run();
+            } else {
+                inFlight.remove(key);
+            }
+        }
+    }
+
+    // 1s, 2s, 4s, ... up to MAX_RETRY_DELAY after the given number of failed attempts
+    private static Instant retryAt(int attempts) {
+        long seconds = Math.min(1L << Math.min(attempts - 1, 30), MAX_RETRY_DELAY.toSeconds());
+        return Instant.now().plusSeconds(seconds);
+    }
+
+    public boolean isUnprocessable(String key) {
+        return unprocessable.contains(key);
+    }
+
+    // Whether ImageIO can read the image and it is within MAX_PIXELS. Reads only the header.
+    public boolean canDecode(InputStream content) throws IOException {
+        try (ImageInputStream imageIn = ImageIO.createImageInputStream(content)) {
+            if (imageIn == null) {
+                return false;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageIn);
+            if (!readers.hasNext()) {
+                return false;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageIn, true, true);
+                return (long) reader.getWidth(0) * reader.getHeight(0) <= MAX_PIXELS;
+            } catch (IOException e) {
+                return false;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void generateVariants(String key) throws IOException {
+        Resource original = imageStore.load(key).orElse(null);
+        if (original == null) {
+            unprocessable.add(key);
+            logger.warn("Stored image is missing, so it can have no variants");
+            return;
+        }
+        BufferedImage image = decode(original);
+        if (image == null) {
+            // Not a format ImageIO can read (e.g. HEIC), or corrupt; such uploads are normally refused up front
+            unprocessable.add(key);
+            logger.debug("Skipping variants for an unsupported, corrupt or oversized image");
+            return;
+        }
+        int orientation;
+        try (InputStream in = original.getInputStream()) {
+            orientation = readExifOrientation(in);
+        }
+
+        // THUMB is written last: its presence is what marks the image as fully processed
+        for (ImageVariant variant : new ImageVariant[] {ImageVariant.MEDIUM, ImageVariant.FULL, ImageVariant.THUMB}) {
+            BufferedImage rendition = render(image, orientation, variant.getMaxWidth());
+            imageStore.storeVariant(key, variant, new ByteArrayInputStream(encodeJpeg(rendition)));
+        }
+    }
+
+    // Null when the content is not a readable image; I/O errors reading the store still propagate
+    private static BufferedImage decode(Resource resource) throws IOException {
+        try (InputStream in = resource.getInputStream();
+             ImageInputStream imageIn = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageIn);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageIn, true, true);
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > MAX_PIXELS) {
+                    return null;
+                }
+                return reader.read(0);
+            } catch (IIOException | IllegalArgumentException e) {
+                // The reader rejected the data itself
+                return null;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Applies the EXIF orientation and scales down to maxWidth (0 keeps the size) in a single draw
+    private static BufferedImage render(BufferedImage source, int orientation, int maxWidth) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        boolean swapsAxes = orientation >= 5 && orientation <= 8;
+        int orientedWidth = swapsAxes ? height : width;
+        int orientedHeight = swapsAxes ? width : height;
+
+        double scale = maxWidth > 0 && orientedWidth > maxWidth ? (double) maxWidth / orientedWidth : 1.0;
+        int targetWidth = Math.max(1, (int) Math.round(orientedWidth * scale));
+        int targetHeight = Math.max(1, (int) Math.round(orientedHeight * scale));
+
+        BufferedImage target = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            // JPEG has no alpha channel, so transparent areas become white
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, targetWidth, targetHeight);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.scale(scale, scale);
+            g.transform(orientationTransform(orientation, width, height));
+            g.drawImage(source, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    // Maps source pixels to display pixels for EXIF orientations 1-8
+    private static AffineTransform orientationTransform(int orientation, int width, int height) {
+        return switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, width, 0);
+            case 3 -> new AffineTransform(-1, 0, 0, -1, width, height);
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, height);
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> new AffineTransform(0, 1, -1, 0, height, 0);
+            case 7 -> new AffineTransform(0, -1, -1, 0, height, width);
+            case 8 -> new AffineTransform(0, -1, 1, 0, 0, width);
+            default -> new AffineTransform();
+        };
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(JPEG_QUALITY);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(imageOut);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    // Reads the orientation tag from a JPEG's EXIF segment; 1 (as stored) when there is none
+    private static int readExifOrientation(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        try {
+            if (data.readUnsignedShort() != 0xFFD8) {
+                return 1;
+            }
+            while (true) {
+                int marker = data.readUnsignedShort();
+                // Metadata segments all come before the start-of-scan marker
+                if ((marker & 0xFF00) != 0xFF00 || marker == 0xFFDA || marker == 0xFFD9) {
+                    return 1;
+                }
+                int length = data.readUnsignedShort() - 2;
+                if (length < 0) {
+                    return 1;
+                }
+                if (marker == 0xFFE1) {
+                    byte[] segment = new byte[length];
+                    data.readFully(segment);
+                    int orientation = parseExifOrientation(segment);
+                    if (orientation > 0) {
+                        return orientation;
+                    }
+                } else {
+                    data.skipNBytes(length);
+                }
+            }
+        } catch (IOException e) {
+            return 1;
+        }
+    }
+
+    // Returns the orientation from an APP1 segment, 0 if the segment is not EXIF (e.g. XMP)
+    private static int parseExifOrientation(byte[] segment) {
+        if (segment.length < 14 || segment[0] != 'E' || segment[1] != 'x' || segment[2] != 'i' || segment[3] != 'f') {
+            return 0;
+        }
+        try {
+            int tiff = 6;
+            ByteBuffer buffer = ByteBuffer.wrap(segment);
+            buffer.order(segment[tiff] == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+            int ifd = tiff + buffer.getInt(tiff + 4);
+            int entries = buffer.getShort(ifd) & 0xFFFF;
+            for (int i = 0; i < entries; i++) {
+                int entry = ifd + 2 + i * 12;
+                if ((buffer.getShort(entry) & 0xFFFF) == 0x0112) {
+                    int orientation = buffer.getShort(entry + 8) & 0xFFFF;
+                    return orientation >= 1 && orientation <= 8 ? orientation : 1;
+                }
+            }
+            return 1;
+        } catch (IndexOutOfBoundsException e) {
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.umd.springbootbackend.service;
+
+import com.umd.springbootbackend.dto.ItemTypeCount;
+import com.umd.springbootbackend.model.ItemType;
+import com.umd.springbootbackend.repo.PostRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Number of posts per ItemType, for the filter sidebar. Counts are adjusted
+ * in memory on every PostsChangedEvent and periodically reconciled with a
+ * GROUP BY query, which also repairs any drift from writes that raced a
+ * reconcile. Cached feed responses carrying the old counts are evicted when
+ * a reconcile corrects them.
+ */
+@Component
+public class ItemTypeFacetCounter {
+    private final PostRepository postRepository;
+    private final FeedResponseCache feedResponseCache;
+    private final Map<ItemType, LongAdder> counts = new EnumMap<>(ItemType.class);
+
+    public ItemTypeFacetCounter(PostRepository postRepository, FeedResponseCache feedResponseCache) {
+        this.postRepository = postRepository;
+        this.feedResponseCache = feedResponseCache;
+        for (ItemType type : ItemType.values()) {
+            counts.put(type, new LongAdder());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${facets.reconcile-interval}", initialDelayString = "${facets.reconcile-interval}")
+    public void reconcile() {
+        Map<ItemType, Long> actual = new EnumMap<>(ItemType.class);
+        for (ItemTypeCount count : postRepository.countByItemType()) {
+            actual.put(count.getItemType(), count.getCount());
+        }
+        boolean changed = false;
+        for (ItemType type : ItemType.values()) {
+            LongAdder adder = counts.get(type);
+            long drift = actual.getOrDefault(type, 0L) - adder.sum();
+            if (drift != 0) {
+                adder.add(drift);
+                changed = true;
+            }
+        }
+        if (changed) {
+            feedResponseCache.evictFacets();
+        }
+    }
+
+    @EventListener
+    public void onPostsChanged(PostsChangedEvent event) {
+        for (PostChangedEvent change : event.changes()) {
+            switch (change.type()) {
+                case CREATED -> counts.get(change.itemType()).increment();
+                case DELETED -> counts.get(change.itemType()).decrement();
+                case UPDATED -> {
+                    if (change.previousItemType() != null && change.previousItemType() != change.itemType()) {
+                        counts.get(change.previousItemType()).decrement();
+                        counts.get(change.itemType()).increment();
+                    }
+                }
+            }
+        }
+    }
+
+    public Map<ItemType, Long> snapshot() {
+        Map<ItemType, Long> snapshot = new EnumMap<>(ItemType.class);
+        counts.forEach((type, count) -> snapshot.put(type, Math.max(0, count.sum())));
+        return snapshot;
+    }
+}
@@ -2,38 +2,105 @@ package com.umd.springbootbackend.service;
 
 import javax.crypto.SecretKey;
 
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.Claims;
+import com.umd.springbootbackend.model.SecurityUser;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
-    @Value("${security.jwt.secret-key}")
-    private String secretKey;
+    // Id of the user the token was issued to, so requests can be authenticated without a users lookup
+    public static final String USER_ID_CLAIM = "uid";
+
+    private final long jwtExpiration;
+    // Decoded once; HMAC keys are immutable and the parser is thread-safe
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+
+    // Verified claims by SHA-256 of the token, so a token is parsed and its signature
+    // checked once rather than on every request. The raw token is never kept.
+    private final int claimsCacheSize;
+    private final Map<String, VerifiedToken> verifiedTokens;
+
+    private record VerifiedToken(Claims claims, long expiresAtMillis) {}
+
+    public JwtService(
+            @Value("${security.jwt.secret-key}") String secretKey,
+            @Value("${security.jwt.expiration-time}") long jwtExpiration,
+            @Value("${security.jwt.claims-cache-size}") int claimsCacheSize) {
+        this.jwtExpiration = jwtExpiration;
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.claimsCacheSize = claimsCacheSize;
+        // Access order, so the least recently used token is evicted first
+        this.verifiedTokens = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > JwtService.this.claimsCacheSize;
+            }
+        };
+    }
 
-    @Value("${security.jwt.expiration-time}")
-    private long jwtExpiration;
+    // Claims of a token whose signature and expiry have been checked. Throws the
+    // parser's JwtException for invalid or expired tokens, as a fresh parse would.
+    public Claims verify(String token) {
+        String digest = digest(token);
+        synchronized (verifiedTokens) {
+            VerifiedToken cached = verifiedTokens.get(digest);
+            if (cached != null) {
+                if (cached.expiresAtMillis() > System.currentTimeMillis()) {
+                    return cached.claims();
+                }
+                verifiedTokens.remove(digest);
+            }
+        }
+
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            synchronized (verifiedTokens) {
+                verifiedTokens.put(digest, new VerifiedToken(claims, expiration.getTime()));
+            }
+        }
+        return claims;
+    }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = verify(token);
         return claimsResolver.apply(claims);
     }
 
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof SecurityUser securityUser && securityUser.getId() != null) {
+            claims.put(USER_ID_CLAIM, securityUser.getId());
+        }
+        return generateToken(claims, userDetails);
+    }
+
+    // Null for tokens issued before the uid claim was added
+    public Integer extractUserId(Claims claims) {
+        return claims.get(USER_ID_CLAIM) instanceof Number id ? id.intValue() : null;
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
@@ -53,15 +120,21 @@ public class JwtService {
                 .builder()
                 .claims(extraClaims)
                 .subject(userDetails.getUsername())
+                // jti, so a single token can be revoked (see TokenRevocationService)
+                .id(UUID.randomUUID().toString())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey())
+                .signWith(signingKey)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(verify(token), userDetails);
+    }
+
+    // For claims already returned by verify, so the token is not looked up again
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
     }
 
     public boolean isTokenExpired(String token) {
@@ -72,22 +145,12 @@ public class JwtService {
         return extractClaim(token, Claims::getExpiration);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
-
-
-
-
-
 }
@@ -0,0 +1,172 @@
+package com.umd.springbootbackend.service;
+
+import com.umd.springbootbackend.model.ImageVariant;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Stores images on the local filesystem under {@code <root>/<ab>/<cd>/<sha256>},
+ * where ab and cd are the first two byte pairs of the hash. Sharding keeps
+ * directories small no matter how many images are stored. Variants sit next to
+ * the original as {@code <sha256>.<variant>}.
+ */
+@Service
+public class LocalImageStore implements ImageStore {
+    private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+    private final Path tmpDir;
+
+    public LocalImageStore(@Value("${storage.images.root}") String root) throws IOException {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.tmpDir = this.root.resolve("tmp");
+        Files.createDirectories(tmpDir);
+    }
+
+    @Override
+    public String store(InputStream content, long maxBytes) throws IOException {
+        Path tmp = Files.createTempFile(tmpDir, "upload-", ".part");
+        try {
+            // Hash and size-check while copying, so the upload is never held in memory
+            MessageDigest digest = sha256();
+            try (InputStream in = new DigestInputStream(new LimitedInputStream(content, maxBytes), digest)) {
+                Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String key = HexFormat.of().formatHex(digest.digest());
+
+            Path target = pathFor(key);
+            if (Files.exists(target)) {
+                // Same content is already stored
+                return key;
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target);
+            } catch (FileAlreadyExistsException e) {
+                // A concurrent upload of the same content won the race
+            }
+            return key;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Override
+    public Optional<Resource> load(String key) {
+        if (!isValidKey(key)) {
+            return Optional.empty();
+        }
+        return resourceAt(pathFor(key));
+    }
+
+    @Override
+    public void storeVariant(String key, ImageVariant variant, InputStream content) throws IOException {
+        if (!isValidKey(key)) {
+            throw new IllegalArgumentException("Invalid image key");
+        }
+        Path target = variantPathFor(key, variant);
+        Path tmp = Files.createTempFile(tmpDir, "variant-", ".part");
+        try {
+            Files.copy(content, tmp, StandardCopyOption.REPLACE_EXISTING);
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Override
+    public Optional<Resource> loadVariant(String key, ImageVariant variant) {
+        if (!isValidKey(key)) {
+            return Optional.empty();
+        }
+        return resourceAt(variantPathFor(key, variant));
+    }
+
+    private static boolean isValidKey(String key) {
+        return key != null && KEY_PATTERN.matcher(key).matches();
+    }
+
+    private static Optional<Resource> resourceAt(Path path) {
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        return Optional.of(new FileSystemResource(path));
+    }
+
+    private Path pathFor(String key) {
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    private Path variantPathFor(String key, ImageVariant variant) {
+        return pathFor(key).resolveSibling(key + "." + variant.getName());
+    }
+
+    // Fails the copy as soon as the stream yields more than maxBytes
+    private static class LimitedInputStream extends FilterInputStream {
+        private final long maxBytes;
+        private long count;
+
+        LimitedInputStream(InputStream in, long maxBytes) {
+            super(in);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) throws ImageTooLargeException {
+            count += n;
+            if (count > maxBytes) {
+                throw new ImageTooLargeException(maxBytes);
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.umd.springbootbackend.service;
+
+import java.time.Duration;
+
+/**
+ * Thrown by BoundedPasswordEncoder when its queue is full or a hash took too
+ * long to come back. Callers should answer 503 with Retry-After rather than
+ * wait for a hashing thread.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+    private final Duration retryAfter;
+
+    public PasswordHashingBusyException(Duration retryAfter) {
+        super("Too many sign-ins in progress, try again shortly");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
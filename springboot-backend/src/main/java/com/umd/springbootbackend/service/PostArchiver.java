@@ -0,0 +1,92 @@
+package com.umd.springbootbackend.service;
+
+import com.umd.springbootbackend.model.Post;
+import com.umd.springbootbackend.repo.ArchivedPostRepository;
+import com.umd.springbootbackend.repo.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Moves resolved and stale posts from posts to posts_archive, so the live
+ * table and its indexes only hold items people are still looking for.
+ * Works in chunks of archive.batch-size, one short transaction per chunk.
+ */
+@Component
+public class PostArchiver {
+    private static final Logger logger = LoggerFactory.getLogger(PostArchiver.class);
+
+    private final PostRepository postRepository;
+    private final ArchivedPostRepository archivedPostRepository;
+    private final PostService postService;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration resolvedGrace;
+    private final Duration maxAge;
+    private final int batchSize;
+
+    public PostArchiver(
+            PostRepository postRepository,
+            ArchivedPostRepository archivedPostRepository,
+            PostService postService,
+            PlatformTransactionManager transactionManager,
+            @Value("${archive.resolved-grace}") Duration resolvedGrace,
+            @Value("${archive.max-age}") Duration maxAge,
+            @Value("${archive.batch-size}") int batchSize) {
+        this.postRepository = postRepository;
+        this.archivedPostRepository = archivedPostRepository;
+        this.postService = postService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.resolvedGrace = resolvedGrace;
+        this.maxAge = maxAge;
+        this.batchSize = batchSize;
+    }
+
+    // Posts created before created_at existed start their max-age from now
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillCreatedAt() {
+        Integer updated = transactionTemplate.execute(status -> postRepository.backfillCreatedAt(Instant.now()));
+        if (updated != null && updated > 0) {
+            logger.info("Set created_at on {} existing posts", updated);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${archive.interval}", initialDelayString = "${archive.interval}")
+    public void archive() {
+        Instant now = Instant.now();
+        Instant resolvedBefore = now.minus(resolvedGrace);
+        Instant createdBefore = now.minus(maxAge);
+        int total = 0;
+        List<Integer> ids;
+        do {
+            ids = postRepository.findArchivableIds(resolvedBefore, createdBefore, Limit.of(batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            List<Integer> chunk = ids;
+            List<Post> archived = transactionTemplate.execute(status -> {
+                List<Post> posts = postRepository.findAllById(chunk);
+                archivedPostRepository.copyFromPosts(chunk, now);
+                postRepository.deleteAllByIdInBatch(chunk);
+                return posts;
+            });
+            // After commit, so the in-memory indexes and caches drop them too
+            postService.postsArchived(archived);
+            total += chunk.size();
+        } while (ids.size() == batchSize);
+
+        if (total > 0) {
+            logger.info("Archived {} posts", total);
+        }
+    }
+}
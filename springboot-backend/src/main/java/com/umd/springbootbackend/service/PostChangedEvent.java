@@ -0,0 +1,29 @@
+package com.umd.springbootbackend.service;
+
+import com.umd.springbootbackend.model.ItemType;
+
+import java.time.Instant;
+
+/**
+ * One post that PostService created, updated or deleted, delivered inside a
+ * PostsChangedEvent so in-memory views of the posts table can stay current.
+ * createdAt places the post in the feed order. previousItemType is only set
+ * for updates; latitude and longitude are null for posts without a location.
+ */
+public record PostChangedEvent(
+        ChangeType type,
+        Integer postId,
+        Integer userId,
+        Instant createdAt,
+        ItemType itemType,
+        ItemType previousItemType,
+        String content,
+        Double latitude,
+        Double longitude) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
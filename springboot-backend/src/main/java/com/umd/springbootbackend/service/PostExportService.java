@@ -0,0 +1,66 @@
+package com.umd.springbootbackend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.umd.springbootbackend.dto.PostDto;
+import com.umd.springbootbackend.repo.PostRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Writes the whole post catalog as newline-delimited JSON, one post per line.
+// Rows are read through a database cursor and written as they arrive, so memory
+// use does not grow with the size of the table.
+@Service
+public class PostExportService {
+    private static final int FLUSH_INTERVAL = 500;
+
+    private final PostRepository postRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public PostExportService(
+            PostRepository postRepository,
+            EntityManager entityManager,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager) {
+        this.postRepository = postRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // Runs on the async request thread, outside open-session-in-view, so it opens its own
+    // transaction; PostgreSQL only honours the fetch size with auto-commit off.
+    public void export(OutputStream out) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<PostDto> posts = postRepository.streamAllDtos();
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                // Lines are terminated explicitly below instead of Jackson's default space separator
+                generator.setRootValueSeparator(null);
+                int written = 0;
+                for (Iterator<PostDto> it = posts.iterator(); it.hasNext(); ) {
+                    generator.writeObject(it.next());
+                    generator.writeRaw('\n');
+                    if (++written % FLUSH_INTERVAL == 0) {
+                        generator.flush();
+                        entityManager.clear();
+                    }
+                }
+                generator.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write post export", e);
+            }
+        });
+    }
+}
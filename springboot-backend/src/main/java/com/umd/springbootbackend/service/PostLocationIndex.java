@@ -0,0 +1,162 @@
+package com.umd.springbootbackend.service;
+
+import com.umd.springbootbackend.dto.PostLocationView;
+import com.umd.springbootbackend.model.ItemType;
+import com.umd.springbootbackend.repo.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory grid index over post locations. Space is cut into fixed cells of
+ * CELL_DEGREES on each side; a radius query only visits the cells its bounding
+ * box overlaps and checks exact distances for the posts in them. Loaded from
+ * PostRepository at startup and kept current from PostsChangedEvents.
+ */
+@Component
+public class PostLocationIndex {
+    private static final Logger logger = LoggerFactory.getLogger(PostLocationIndex.class);
+    // About 550m north-south; a campus-sized radius touches a handful of cells
+    private static final double CELL_DEGREES = 0.005;
+    private static final double EARTH_RADIUS_METERS = 6_371_000;
+    private static final double METERS_PER_DEGREE = Math.toRadians(1) * EARTH_RADIUS_METERS;
+
+    private final PostRepository postRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // cell key -> posts located in that cell
+    private final Map<Long, List<LocatedPost>> cells = new HashMap<>();
+    // post id -> indexed location, needed to move or remove a post
+    private final Map<Integer, LocatedPost> posts = new HashMap<>();
+
+    private record LocatedPost(Integer id, ItemType itemType, double latitude, double longitude) {}
+
+    private record NearbyPost(Integer id, double distance) {}
+
+    public PostLocationIndex(PostRepository postRepository) {
+        this.postRepository = postRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            posts.clear();
+            List<PostLocationView> all = postRepository.findAllLocations();
+            for (PostLocationView post : all) {
+                add(new LocatedPost(post.getId(), post.getItemType(), post.getLatitude(), post.getLongitude()));
+            }
+            logger.info("Location index built with {} posts", all.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onPostsChanged(PostsChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (PostChangedEvent change : event.changes()) {
+                remove(change.postId());
+                if (change.type() != PostChangedEvent.ChangeType.DELETED
+                        && change.latitude() != null && change.longitude() != null) {
+                    add(new LocatedPost(change.postId(), change.itemType(), change.latitude(), change.longitude()));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Ids of posts within radiusMeters of the point, nearest first.
+    // An empty types set matches every item type.
+    public List<Integer> nearby(double latitude, double longitude, double radiusMeters,
+                                EnumSet<ItemType> types, int limit) {
+        double latSpan = radiusMeters / METERS_PER_DEGREE;
+        // Longitude degrees shrink towards the poles; clamp so the span stays finite
+        double lonSpan = radiusMeters / (METERS_PER_DEGREE * Math.max(Math.cos(Math.toRadians(latitude)), 0.01));
+        long minRow = cell(latitude - latSpan);
+        long maxRow = cell(latitude + latSpan);
+        long minCol = cell(longitude - lonSpan);
+        long maxCol = cell(longitude + lonSpan);
+
+        List<NearbyPost> found = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (long row = minRow; row <= maxRow; row++) {
+                for (long col = minCol; col <= maxCol; col++) {
+                    List<LocatedPost> cell = cells.get(key(row, col));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (LocatedPost post : cell) {
+                        if (!types.isEmpty() && !types.contains(post.itemType())) {
+                            continue;
+                        }
+                        double distance = distanceMeters(latitude, longitude, post.latitude(), post.longitude());
+                        if (distance <= radiusMeters) {
+                            found.add(new NearbyPost(post.id(), distance));
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return found.stream()
+                .sorted(Comparator.comparingDouble(NearbyPost::distance))
+                .limit(limit)
+                .map(NearbyPost::id)
+                .toList();
+    }
+
+    private void add(LocatedPost post) {
+        posts.put(post.id(), post);
+        cells.computeIfAbsent(key(cell(post.latitude()), cell(post.longitude())), k -> new ArrayList<>()).add(post);
+    }
+
+    private void remove(Integer postId) {
+        LocatedPost post = posts.remove(postId);
+        if (post == null) {
+            return;
+        }
+        long key = key(cell(post.latitude()), cell(post.longitude()));
+        List<LocatedPost> cell = cells.get(key);
+        cell.removeIf(p -> p.id().equals(postId));
+        if (cell.isEmpty()) {
+            cells.remove(key);
+        }
+    }
+
+    private static long cell(double degrees) {
+        return (long) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    // Rows and columns both fit in 32 bits at this cell size
+    private static long key(long row, long col) {
+        return (row << 32) ^ (col & 0xffffffffL);
+    }
+
+    // Haversine distance
+    private static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,282 @@
+package com.umd.springbootbackend.service;
+
+import com.umd.springbootbackend.dto.PostTextView;
+import com.umd.springbootbackend.model.ItemType;
+import com.umd.springbootbackend.model.PostMatch;
+import com.umd.springbootbackend.repo.PostMatchRepository;
+import com.umd.springbootbackend.repo.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Finds posts that may describe the same item. Candidates are blocked by
+ * ItemType and then ranked by cosine similarity of their TF-IDF term vectors.
+ *
+ * Each ItemType has its own incrementally maintained inverted index, so a new
+ * post is only compared with same-type posts that share at least one term,
+ * never with the whole table. The top matches are stored in post_matches in
+ * both directions, so older posts also learn about the new one; an older post
+ * keeps only its best top-K, so its stored matches stay bounded.
+ *
+ * The in-memory index is updated on the publishing thread once the change has
+ * committed. The post_matches writes run on a single background thread, in
+ * event order, so post writes never wait for them.
+ */
+@Component
+public class PostMatchingEngine {
+    private static final Logger logger = LoggerFactory.getLogger(PostMatchingEngine.class);
+
+    private final PostRepository postRepository;
+    private final PostMatchRepository postMatchRepository;
+    private final int topK;
+    private final double minScore;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Executor writer;
+
+    private final Map<ItemType, TypeIndex> indexes = new EnumMap<>(ItemType.class);
+    private final Map<Integer, ItemType> indexedTypes = new HashMap<>();
+
+    // Term vectors and postings of all posts of one ItemType
+    private static class TypeIndex {
+        final Map<Integer, IndexedPost> posts = new HashMap<>();
+        final Map<String, Set<Integer>> postings = new HashMap<>();
+    }
+
+    private record IndexedPost(Integer userId, Map<String, Integer> termFrequencies) {}
+
+    private record Scored(Integer candidateId, double score) {}
+
+    @Autowired
+    public PostMatchingEngine(
+            PostRepository postRepository,
+            PostMatchRepository postMatchRepository,
+            @Value("${matching.top-k}") int topK,
+            @Value("${matching.min-score}") double minScore) {
+        this(postRepository, postMatchRepository, topK, minScore, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "post-matching");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    // Tests pass a direct executor so the writes happen before onPostsChanged returns
+    PostMatchingEngine(
+            PostRepository postRepository,
+            PostMatchRepository postMatchRepository,
+            int topK,
+            double minScore,
+            Executor writer) {
+        this.postRepository = postRepository;
+        this.postMatchRepository = postMatchRepository;
+        this.topK = topK;
+        this.minScore = minScore;
+        this.writer = writer;
+        for (ItemType type : ItemType.values()) {
+            indexes.put(type, new TypeIndex());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            indexes.values().forEach(index -> {
+                index.posts.clear();
+                index.postings.clear();
+            });
+            indexedTypes.clear();
+            for (PostTextView post : postRepository.findAllTextViews()) {
+                add(post.getId(), post.getUserId(), post.getItemType(), post.getContent());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (writer instanceof ExecutorService executor) {
+            executor.shutdown();
+        }
+    }
+
+    // Also runs without a transaction; then the change is already committed
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostsChanged(PostsChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (PostChangedEvent change : event.changes()) {
+                remove(change.postId());
+                if (change.type() != PostChangedEvent.ChangeType.DELETED) {
+                    add(change.postId(), change.userId(), change.itemType(), change.content());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        writer.execute(() -> {
+            // Matching is best effort: a failure here only costs these posts their matches
+            try {
+                writeMatches(event.changes());
+            } catch (RuntimeException e) {
+                logger.warn("Failed to update matches for {} posts", event.changes().size(), e);
+            }
+        });
+    }
+
+    // Top-K same-type posts by other users, best first
+    List<Scored> findCandidates(Integer postId) {
+        lock.readLock().lock();
+        try {
+            ItemType type = indexedTypes.get(postId);
+            if (type == null) {
+                return List.of();
+            }
+            TypeIndex index = indexes.get(type);
+            IndexedPost post = index.posts.get(postId);
+
+            Set<Integer> candidateIds = new HashSet<>();
+            for (String term : post.termFrequencies().keySet()) {
+                candidateIds.addAll(index.postings.getOrDefault(term, Set.of()));
+            }
+
+            Map<String, Double> vector = weigh(index, post);
+            double norm = norm(vector);
+            Comparator<Scored> order = Comparator.comparingDouble(Scored::score);
+            PriorityQueue<Scored> best = new PriorityQueue<>(order);
+            for (Integer candidateId : candidateIds) {
+                IndexedPost candidate = index.posts.get(candidateId);
+                if (candidateId.equals(postId) || candidate.userId().equals(post.userId())) {
+                    continue;
+                }
+                Map<String, Double> candidateVector = weigh(index, candidate);
+                double dot = 0;
+                for (Map.Entry<String, Double> entry : vector.entrySet()) {
+                    dot += entry.getValue() * candidateVector.getOrDefault(entry.getKey(), 0.0);
+                }
+                double score = dot / (norm * norm(candidateVector));
+                if (score >= minScore) {
+                    best.offer(new Scored(candidateId, score));
+                    if (best.size() > topK) {
+                        best.poll();
+                    }
+                }
+            }
+            List<Scored> ranked = new ArrayList<>(best);
+            ranked.sort(order.reversed());
+            return ranked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // A fixed number of statements per event, however many posts it carries
+    private void writeMatches(List<PostChangedEvent> changes) {
+        List<Integer> replaced = changes.stream()
+                .filter(change -> change.type() != PostChangedEvent.ChangeType.CREATED)
+                .map(PostChangedEvent::postId)
+                .toList();
+        if (!replaced.isEmpty()) {
+            postMatchRepository.deleteAllInvolving(replaced);
+        }
+
+        // Keyed by (post, candidate): two posts of one batch that match each other yield the pair twice
+        Map<List<Integer>, PostMatch> matches = new LinkedHashMap<>();
+        for (PostChangedEvent change : changes) {
+            if (change.type() == PostChangedEvent.ChangeType.DELETED) {
+                continue;
+            }
+            Integer postId = change.postId();
+            for (Scored candidate : findCandidates(postId)) {
+                Integer candidateId = candidate.candidateId();
+                double score = candidate.score();
+                matches.putIfAbsent(List.of(postId, candidateId), new PostMatch(postId, candidateId, score));
+                matches.putIfAbsent(List.of(candidateId, postId), new PostMatch(candidateId, postId, score));
+            }
+        }
+        postMatchRepository.saveAll(matches.values());
+
+        // The reverse rows can push a post past top-K matches; drop the weakest in one statement
+        if (!matches.isEmpty()) {
+            List<Integer> matchedPostIds = matches.values().stream().map(PostMatch::getPostId).distinct().toList();
+            postMatchRepository.trimToTopK(matchedPostIds, topK);
+        }
+    }
+
+    // Sublinear TF times smoothed IDF within the post's ItemType
+    private static Map<String, Double> weigh(TypeIndex index, IndexedPost post) {
+        int n = index.posts.size();
+        Map<String, Double> vector = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : post.termFrequencies().entrySet()) {
+            int df = index.postings.get(entry.getKey()).size();
+            double idf = Math.log((n + 1.0) / (df + 1.0)) + 1;
+            vector.put(entry.getKey(), (1 + Math.log(entry.getValue())) * idf);
+        }
+        return vector;
+    }
+
+    private static double norm(Map<String, Double> vector) {
+        double sum = 0;
+        for (double weight : vector.values()) {
+            sum += weight * weight;
+        }
+        return Math.sqrt(sum);
+    }
+
+    // Callers hold the write lock
+    private void add(Integer postId, Integer userId, ItemType itemType, String content) {
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        for (String term : TextAnalyzer.analyze(content)) {
+            termFrequencies.merge(term, 1, Integer::sum);
+        }
+        if (termFrequencies.isEmpty()) {
+            return;
+        }
+        TypeIndex index = indexes.get(itemType);
+        index.posts.put(postId, new IndexedPost(userId, termFrequencies));
+        for (String term : termFrequencies.keySet()) {
+            index.postings.computeIfAbsent(term, k -> new HashSet<>()).add(postId);
+        }
+        indexedTypes.put(postId, itemType);
+    }
+
+    private void remove(Integer postId) {
+        ItemType type = indexedTypes.remove(postId);
+        if (type == null) {
+            return;
+        }
+        TypeIndex index = indexes.get(type);
+        IndexedPost existing = index.posts.remove(postId);
+        for (String term : existing.termFrequencies().keySet()) {
+            Set<Integer> postIds = index.postings.get(term);
+            postIds.remove(postId);
+            if (postIds.isEmpty()) {
+                index.postings.remove(term);
+            }
+        }
+    }
+}
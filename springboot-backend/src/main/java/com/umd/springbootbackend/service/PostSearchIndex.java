@@ -0,0 +1,164 @@
+package com.umd.springbootbackend.service;
+
+import com.umd.springbootbackend.dto.PostTextView;
+import com.umd.springbootbackend.model.ItemType;
+import com.umd.springbootbackend.repo.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over post content and item type, ranked with BM25.
+ * Loaded from PostRepository at startup and kept current from PostsChangedEvents,
+ * so searching never has to run LIKE scans against the database.
+ */
+@Component
+public class PostSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(PostSearchIndex.class);
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final PostRepository postRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term -> (post id -> term frequency)
+    private final Map<String, Map<Integer, Integer>> postings = new HashMap<>();
+    // post id -> distinct terms and length, needed to remove or re-index a post
+    private final Map<Integer, IndexedPost> posts = new HashMap<>();
+    private long totalLength;
+
+    private record IndexedPost(Map<String, Integer> termFrequencies, int length) {}
+
+    private record ScoredPost(Integer id, double score) {}
+
+    public PostSearchIndex(PostRepository postRepository) {
+        this.postRepository = postRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            posts.clear();
+            totalLength = 0;
+            List<PostTextView> all = postRepository.findAllTextViews();
+            for (PostTextView post : all) {
+                add(post.getId(), post.getItemType(), post.getContent());
+            }
+            logger.info("Search index built with {} posts", all.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onPostsChanged(PostsChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (PostChangedEvent change : event.changes()) {
+                remove(change.postId());
+                if (change.type() != PostChangedEvent.ChangeType.DELETED) {
+                    add(change.postId(), change.itemType(), change.content());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Returns up to limit post ids, best match first
+    public List<Integer> search(String query, int limit) {
+        List<String> terms = TextAnalyzer.analyze(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (posts.isEmpty()) {
+                return List.of();
+            }
+            int n = posts.size();
+            double averageLength = (double) totalLength / n;
+            Map<Integer, Double> scores = new HashMap<>();
+            for (String term : terms.stream().distinct().toList()) {
+                Map<Integer, Integer> matches = postings.get(term);
+                if (matches == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (n - matches.size() + 0.5) / (matches.size() + 0.5));
+                for (Map.Entry<Integer, Integer> match : matches.entrySet()) {
+                    double tf = match.getValue();
+                    double length = posts.get(match.getKey()).length();
+                    double score = idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / averageLength));
+                    scores.merge(match.getKey(), score, Double::sum);
+                }
+            }
+            return topK(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static List<Integer> topK(Map<Integer, Double> scores, int limit) {
+        // Min-heap of the best "limit" posts; ties go to the newer post
+        Comparator<ScoredPost> order = Comparator.comparingDouble(ScoredPost::score)
+                .thenComparing(ScoredPost::id);
+        PriorityQueue<ScoredPost> best = new PriorityQueue<>(order);
+        for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+            best.offer(new ScoredPost(entry.getKey(), entry.getValue()));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<ScoredPost> ranked = new ArrayList<>(best);
+        ranked.sort(order.reversed());
+        return ranked.stream().map(ScoredPost::id).toList();
+    }
+
+    // Callers hold the write lock
+    private void add(Integer postId, ItemType itemType, String content) {
+        List<String> terms = TextAnalyzer.analyze(content);
+        if (itemType != null) {
+            terms.addAll(TextAnalyzer.analyze(itemType.name()));
+        }
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        for (String term : terms) {
+            termFrequencies.merge(term, 1, Integer::sum);
+        }
+        for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), k -> new HashMap<>()).put(postId, entry.getValue());
+        }
+        posts.put(postId, new IndexedPost(termFrequencies, terms.size()));
+        totalLength += terms.size();
+    }
+
+    private void remove(Integer postId) {
+        IndexedPost existing = posts.remove(postId);
+        if (existing == null) {
+            return;
+        }
+        for (String term : existing.termFrequencies().keySet()) {
+            Map<Integer, Integer> matches = postings.get(term);
+            if (matches != null) {
+                matches.remove(postId);
+                if (matches.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= existing.length();
+    }
+}
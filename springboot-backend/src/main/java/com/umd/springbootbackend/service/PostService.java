@@ -1,54 +1,181 @@
 package com.umd.springbootbackend.service;
+import com.umd.springbootbackend.dto.FeedCursor;
 import com.umd.springbootbackend.dto.PostDto;
+import com.umd.springbootbackend.dto.PostImageView;
+import com.umd.springbootbackend.dto.PostMatchDto;
+import com.umd.springbootbackend.dto.PostPageDto;
+import com.umd.springbootbackend.model.ImageVariant;
 import com.umd.springbootbackend.model.ItemType;
 import com.umd.springbootbackend.model.Post;
 import com.umd.springbootbackend.model.User;
+import com.umd.springbootbackend.repo.PostMatchRepository;
 import com.umd.springbootbackend.repo.PostRepository;
 import com.umd.springbootbackend.repo.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class PostService {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_BULK_SIZE = 100;
+    public static final int DEFAULT_NEARBY_RADIUS_METERS = 500;
+    public static final int MAX_NEARBY_RADIUS_METERS = 5000;
+
     private final PostRepository postRepository;
     private final UserRepository userRepository;
+    private final ImageStore imageStore;
+    private final ImageVariantService imageVariantService;
+    private final long maxImageBytes;
+    // Caps how many uploads are copied into the ImageStore at once
+    private final Semaphore uploadPermits;
+    private final Duration uploadWait;
+    private final PostSearchIndex searchIndex;
+    private final PostLocationIndex locationIndex;
+    private final PostMatchRepository postMatchRepository;
+    private final ItemTypeFacetCounter facetCounter;
+    private final FeedResponseCache feedResponseCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    // Bumped after every post mutation. Seeded from the clock so a restart never
+    // reissues a version a client may still hold for different data.
+    private final AtomicLong catalogVersion = new AtomicLong(System.currentTimeMillis());
 
-    public PostService(PostRepository postRepository, UserRepository userRepository) {
+    public PostService(
+            PostRepository postRepository,
+            UserRepository userRepository,
+            ImageStore imageStore,
+            ImageVariantService imageVariantService,
+            PostSearchIndex searchIndex,
+            PostLocationIndex locationIndex,
+            PostMatchRepository postMatchRepository,
+            ItemTypeFacetCounter facetCounter,
+            FeedResponseCache feedResponseCache,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${spring.servlet.multipart.max-file-size}") DataSize maxImageSize,
+            @Value("${storage.images.max-concurrent-uploads}") int maxConcurrentUploads,
+            @Value("${storage.images.upload-wait}") Duration uploadWait) {
         this.postRepository = postRepository;
         this.userRepository = userRepository;
+        this.imageStore = imageStore;
+        this.imageVariantService = imageVariantService;
+        this.maxImageBytes = maxImageSize.toBytes();
+        this.uploadPermits = new Semaphore(maxConcurrentUploads, true);
+        this.uploadWait = uploadWait;
+        this.searchIndex = searchIndex;
+        this.locationIndex = locationIndex;
+        this.postMatchRepository = postMatchRepository;
+        this.facetCounter = facetCounter;
+        this.feedResponseCache = feedResponseCache;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
    public List<PostDto> getAllPosts() {
-        return postRepository.findAll()
-                .stream()
-                .map(post -> new PostDto(
-                        post.getId(),
-                        post.getUser().getId(),
-                        post.getUser().getUsername(),
-                        post.getItemType().name(),
-                        post.getContent(),
-                        post.getImage() != null && post.getImage().length > 0
-                ))
-                .collect(Collectors.toList());
+        return postRepository.findAllDtos();
+   }
+
+   // Get one page of the feed, newest first, starting below the "after" cursor
+   public PostPageDto getFeedPage(FeedCursor after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists
+        List<PostDto> posts = after == null
+                ? postRepository.findFeedPage(Limit.of(pageSize + 1))
+                : postRepository.findFeedPageAfter(after.createdAt(), after.id(), Limit.of(pageSize + 1));
+        return toPage(posts, pageSize);
+   }
+
+   // Feed page restricted to a set of item types (all types when empty), with per-type counts
+   public PostPageDto getFilteredPage(EnumSet<ItemType> types, FeedCursor after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<PostDto> posts;
+        if (types.isEmpty() || types.size() == ItemType.values().length) {
+            posts = after == null
+                    ? postRepository.findFeedPage(Limit.of(pageSize + 1))
+                    : postRepository.findFeedPageAfter(after.createdAt(), after.id(), Limit.of(pageSize + 1));
+        } else {
+            posts = after == null
+                    ? postRepository.findFeedPageByTypes(types, Limit.of(pageSize + 1))
+                    : postRepository.findFeedPageByTypesAfter(
+                            types, after.createdAt(), after.id(), Limit.of(pageSize + 1));
+        }
+        PostPageDto page = toPage(posts, pageSize);
+        page.setFacets(facetCounter.snapshot());
+        return page;
+   }
+
+   // Serialized variants of the feed reads above, served from the FeedResponseCache
+
+   public FeedResponseCache.CachedResponse getAllPostsResponse() {
+        return feedResponseCache.getOrLoad("all",
+                () -> new FeedResponseCache.Loaded(getAllPosts(), FeedResponseCache.Scope.everything()));
+   }
+
+   public FeedResponseCache.CachedResponse getFeedPageResponse(FeedCursor after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return feedResponseCache.getOrLoad("feed:" + pageSize + ":" + after, () -> {
+            PostPageDto page = getFeedPage(after, pageSize);
+            return new FeedResponseCache.Loaded(page, pageScope(EnumSet.allOf(ItemType.class), after, page, false));
+        });
+   }
+
+   public FeedResponseCache.CachedResponse getFilteredPageResponse(
+            EnumSet<ItemType> types, FeedCursor after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        EnumSet<ItemType> selected = types.isEmpty() ? EnumSet.allOf(ItemType.class) : types;
+        long typeMask = 0;
+        for (ItemType type : selected) {
+            typeMask |= 1L << type.ordinal();
+        }
+        return feedResponseCache.getOrLoad("filter:" + typeMask + ":" + pageSize + ":" + after, () -> {
+            PostPageDto page = getFilteredPage(selected, after, pageSize);
+            return new FeedResponseCache.Loaded(page, pageScope(selected, after, page, true));
+        });
+   }
+
+   // A keyset page holds the posts from its last one up to just below the cursor it started from
+   private static FeedResponseCache.Scope pageScope(
+            EnumSet<ItemType> types, FeedCursor after, PostPageDto page, boolean includesFacets) {
+        FeedCursor oldest = page.getNextCursor() == null ? null : FeedCursor.parse(page.getNextCursor());
+        return new FeedResponseCache.Scope(types, oldest, after, includesFacets);
+   }
+
+   private static PostPageDto toPage(List<PostDto> posts, int pageSize) {
+        boolean hasMore = posts.size() > pageSize;
+        List<PostDto> page = hasMore ? posts.subList(0, pageSize) : posts;
+        String nextCursor = hasMore ? FeedCursor.of(page.get(page.size() - 1)).toString() : null;
+        return new PostPageDto(page, nextCursor);
    }
 
    public List<PostDto> getPostsByUsername(String username) {
-        return postRepository.findAll()
-                .stream()
-                .filter(post -> post.getUser().getUsername().equals(username))
-                .map(post -> new PostDto(
-                        post.getId(),
-                        post.getUser().getId(),
-                        post.getUser().getUsername(),
-                        post.getItemType().name(),
-                        post.getContent(),
-                        post.getImage() != null && post.getImage().length > 0
-                ))
-                .collect(Collectors.toList());
+        return postRepository.findDtosByUsername(username);
    }
 
    public Post getPostById(Integer id) {
@@ -56,54 +183,165 @@ public class PostService {
                 .orElseThrow(() -> new RuntimeException("Post not found with id: " + id));
    }
 
+   private Post getPostWithUser(Integer id) {
+        return postRepository.findWithUserById(id)
+                .orElseThrow(() -> new RuntimeException("Post not found with id: " + id));
+   }
+
    public Post createPost(Post post, Integer userId, MultipartFile image) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
 
         post.setUser(user);
+        validateLocation(post.getLatitude(), post.getLongitude());
 
         if (image != null && !image.isEmpty()) {
-            try {
-                post.setImage(image.getBytes());
-                post.setImageType(image.getContentType());
-            } catch (IOException e) {
-                throw new RuntimeException("Failed to store image file", e);
+            storeImage(post, image);
+        }
+        Post saved = postRepository.save(post);
+        publish(PostChangedEvent.ChangeType.CREATED, saved, null);
+        return saved;
+   }
+
+   // Saves every post in one transaction. The pooled id sequence and JDBC batching turn
+   // this into a few round-trips instead of one insert per post, and listeners get a single
+   // event for the whole batch. Bulk posts carry no image.
+   public List<Post> createPosts(List<Post> posts, Integer userId) {
+        if (posts.isEmpty() || posts.size() > MAX_BULK_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "A bulk request must contain between 1 and " + MAX_BULK_SIZE + " posts");
+        }
+        for (Post details : posts) {
+            if (details.getItemType() == null || details.getContent() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Every post needs an itemType and content");
             }
+            validateLocation(details.getLatitude(), details.getLongitude());
         }
-        return postRepository.save(post);
+
+        List<Post> saved = transactionTemplate.execute(status -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+            List<Post> toSave = new ArrayList<>(posts.size());
+            for (Post details : posts) {
+                Post post = new Post(null, details.getItemType(), details.getContent(), user);
+                post.setLatitude(details.getLatitude());
+                post.setLongitude(details.getLongitude());
+                toSave.add(post);
+            }
+            return postRepository.saveAll(toSave);
+        });
+        publish(saved, PostChangedEvent.ChangeType.CREATED);
+        return saved;
    }
 
    public Post updatePost(Integer id, Post postDetails, Integer userId) {
-        Post post = getPostById(id);
+        Post post = getPostWithUser(id);
+        ItemType previousItemType = post.getItemType();
         post.setContent(postDetails.getContent());
         post.setItemType(postDetails.getItemType());
-        return postRepository.save(post);
+        updateLocation(post, postDetails);
+        Post saved = postRepository.save(post);
+        publish(PostChangedEvent.ChangeType.UPDATED, saved, previousItemType);
+        return saved;
+   }
+
+   // Marks the item as returned to its owner; PostArchiver moves it out after a grace period
+   public Post resolvePost(Integer id) {
+        Post post = getPostWithUser(id);
+        if (post.getResolvedAt() == null) {
+            post.setResolvedAt(Instant.now());
+            post = postRepository.save(post);
+            publish(PostChangedEvent.ChangeType.UPDATED, post, post.getItemType());
+        }
+        return post;
    }
 
    public void deletePost(Integer id) {
-        postRepository.deleteById(id);
+        Post post = getPostById(id);
+        postRepository.delete(post);
+        publish(PostChangedEvent.ChangeType.DELETED, post, null);
+   }
+
+   // Deletes the given posts with a single statement, in the same transaction as the ownership
+   // check. All of them must belong to the user; ids that no longer exist are ignored.
+   // Returns how many posts were deleted.
+   public int deletePosts(Collection<Integer> ids, Integer userId) {
+        if (ids.isEmpty() || ids.size() > MAX_BULK_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "A bulk request must contain between 1 and " + MAX_BULK_SIZE + " ids");
+        }
+        List<Post> posts = transactionTemplate.execute(status -> {
+            List<Post> found = postRepository.findAllById(ids);
+            for (Post post : found) {
+                if (!post.getUser().getId().equals(userId)) {
+                    throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Post " + post.getId() + " belongs to another user");
+                }
+            }
+            if (!found.isEmpty()) {
+                postRepository.deleteAllByIdInBatch(found.stream().map(Post::getId).toList());
+            }
+            return found;
+        });
+        publish(posts, PostChangedEvent.ChangeType.DELETED);
+        return posts.size();
+   }
+
+   // Called by PostArchiver once archived posts have left the posts table
+   public void postsArchived(List<Post> posts) {
+        publish(posts, PostChangedEvent.ChangeType.DELETED);
+   }
+
+   // Deletes every post of a user with a single statement; listeners see one batch
+   public void deletePostsByUser(Integer userId) {
+        List<Post> posts = transactionTemplate.execute(status -> {
+            List<Post> found = postRepository.findByUserId(userId);
+            postRepository.deleteAllInBatch(found);
+            return found;
+        });
+        publish(posts, PostChangedEvent.ChangeType.DELETED);
+   }
+
+   // Full-text search over content and item type, best match first
+   public List<PostDto> searchPosts(String query, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return findDtosInOrder(searchIndex.search(query, pageSize));
+   }
+
+   // Posts within radiusMeters of a point, nearest first; an empty types set means every type
+   public List<PostDto> getNearbyPosts(double latitude, double longitude, int radiusMeters,
+                                       EnumSet<ItemType> types, int limit) {
+        validateLocation(latitude, longitude);
+        if (radiusMeters <= 0 || radiusMeters > MAX_NEARBY_RADIUS_METERS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "radius must be between 1 and " + MAX_NEARBY_RADIUS_METERS + " meters");
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return findDtosInOrder(locationIndex.nearby(latitude, longitude, radiusMeters, types, pageSize));
+   }
+
+   private List<PostDto> findDtosInOrder(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, PostDto> byId = postRepository.findDtosByIdIn(ids).stream()
+                .collect(Collectors.toMap(PostDto::getId, Function.identity()));
+        // Keep the ranking order; ids deleted since indexing are skipped
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
    }
 
    // Get posts by user ID
    public List<PostDto> getPostsByUserId(Integer userId) {
-        return postRepository.findByUserId(userId)
-                .stream()
-                .map(post -> new PostDto(
-                        post.getId(),
-                        post.getUser().getId(),
-                        post.getUser().getUsername(),
-                        post.getItemType().name(),
-                        post.getContent(),
-                        post.getImage() != null && post.getImage().length > 0
-                ))
-                .collect(Collectors.toList());
+        return postRepository.findDtosByUserId(userId);
    }
 
    // Get posts by item type
-   public List<Post> getPostsByItemType(String itemType) {
+   public List<PostDto> getPostsByItemType(String itemType) {
         try {
             ItemType type = ItemType.valueOf(itemType.toUpperCase());
-            return postRepository.findByItemType(type);
+            return postRepository.findDtosByItemType(type);
         } catch (IllegalArgumentException e) {
             throw new RuntimeException("Invalid item type: " + itemType);
         }
@@ -111,25 +349,155 @@ public class PostService {
 
    // Update post with image
    public Post updatePostWithImage(Integer id, Post postDetails, Integer userId, MultipartFile image) {
-        Post post = getPostById(id);
+        Post post = getPostWithUser(id);
+        ItemType previousItemType = post.getItemType();
         post.setContent(postDetails.getContent());
         post.setItemType(postDetails.getItemType());
-        
+        updateLocation(post, postDetails);
+
         if (image != null && !image.isEmpty()) {
-            try {
-                post.setImage(image.getBytes());
-                post.setImageType(image.getContentType());
-            } catch (IOException e) {
-                throw new RuntimeException("Failed to store image file", e);
+            storeImage(post, image);
+        }
+        Post saved = postRepository.save(post);
+        publish(PostChangedEvent.ChangeType.UPDATED, saved, previousItemType);
+        return saved;
+   }
+
+   // Image bytes are streamed into the ImageStore; the post keeps only the key.
+   // Resized variants, which are what gets served, are generated in the background,
+   // so formats that cannot be decoded into them are refused here.
+   private void storeImage(Post post, MultipartFile image) {
+        if (image.getSize() > maxImageBytes) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Image is too large");
+        }
+        acquireUploadPermit();
+        try {
+            requireDecodable(image);
+            try (InputStream in = image.getInputStream()) {
+                post.setImageKey(imageStore.store(in, maxImageBytes));
+            }
+            post.setImageType(image.getContentType());
+            post.setImageSize(image.getSize());
+            post.setImageUpdatedAt(Instant.now());
+        } catch (ImageTooLargeException e) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Image is too large");
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store image file", e);
+        } finally {
+            uploadPermits.release();
+        }
+        imageVariantService.submit(post.getImageKey());
+   }
+
+   // Multipart uploads are spooled to disk, so the header can be read before the copy into the store
+   private void requireDecodable(MultipartFile image) throws IOException {
+        try (InputStream in = image.getInputStream()) {
+            if (!imageVariantService.canDecode(in)) {
+                throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                        "Unsupported image format; use JPEG, PNG, GIF or BMP");
             }
         }
-        return postRepository.save(post);
    }
 
-   // Check if user owns the post
+   private void acquireUploadPermit() {
+        boolean acquired;
+        try {
+            acquired = uploadPermits.tryAcquire(uploadWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many uploads in progress, try again shortly");
+        }
+   }
+
+   // Candidate posts that may be the same item, best match first
+   public List<PostMatchDto> getMatches(Integer postId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return postMatchRepository.findMatches(postId, Limit.of(pageSize));
+   }
+
+   // Image columns of a post, without loading the post itself
+   public Optional<PostImageView> getImageMetadata(Integer postId) {
+        return postRepository.findImageById(postId);
+   }
+
+   // False once variant generation has failed for the image, so it will never have any
+   public boolean requestImageVariants(PostImageView image) {
+        if (imageVariantService.isUnprocessable(image.getImageKey())) {
+            return false;
+        }
+        // No-op if they are already being generated; picks up images stored before a restart.
+        // Never blocks: a full queue just means the client retries.
+        imageVariantService.request(image.getImageKey());
+        return true;
+   }
+
+   // Load a resized variant of the post's image, empty until it has been generated
+   public Optional<Resource> getImageVariant(PostImageView image, ImageVariant variant) {
+        return imageStore.loadVariant(image.getImageKey(), variant);
+   }
+
+   // Updates only move a post when a new location is sent, so clients that
+   // do not know about locations leave them untouched
+   private void updateLocation(Post post, Post postDetails) {
+        if (postDetails.getLatitude() == null && postDetails.getLongitude() == null) {
+            return;
+        }
+        validateLocation(postDetails.getLatitude(), postDetails.getLongitude());
+        post.setLatitude(postDetails.getLatitude());
+        post.setLongitude(postDetails.getLongitude());
+   }
+
+   private static void validateLocation(Double latitude, Double longitude) {
+        if (latitude == null && longitude == null) {
+            return;
+        }
+        if (latitude == null || longitude == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "latitude and longitude must be given together");
+        }
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Location is out of range");
+        }
+   }
+
+   // Read before querying: a list built after this call is at least as new as the version
+   public long getCatalogVersion() {
+        return catalogVersion.get();
+   }
+
+   private void publish(PostChangedEvent.ChangeType type, Post post, ItemType previousItemType) {
+        publish(List.of(change(type, post, previousItemType)));
+   }
+
+   private void publish(List<Post> posts, PostChangedEvent.ChangeType type) {
+        if (!posts.isEmpty()) {
+            publish(posts.stream().map(post -> change(type, post, null)).toList());
+        }
+   }
+
+   // One version bump and one event per call, however many posts it touched
+   private void publish(List<PostChangedEvent> changes) {
+        catalogVersion.incrementAndGet();
+        eventPublisher.publishEvent(new PostsChangedEvent(changes));
+   }
+
+   private static PostChangedEvent change(PostChangedEvent.ChangeType type, Post post, ItemType previousItemType) {
+        return new PostChangedEvent(
+                type, post.getId(), post.getUser().getId(), post.getCreatedAt(), post.getItemType(), previousItemType,
+                post.getContent(), post.getLatitude(), post.getLongitude());
+   }
+
+   // Check if user owns the post with a primary-key lookup that loads no columns;
+   // the existence check only runs for non-owners.
    public boolean isPostOwner(Integer postId, Integer userId) {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found with id: " + postId));
-        return post.getUser().getId().equals(userId);
+        if (postRepository.existsByIdAndUserId(postId, userId)) {
+            return true;
+        }
+        if (!postRepository.existsById(postId)) {
+            throw new RuntimeException("Post not found with id: " + postId);
+        }
+        return false;
    }
 }
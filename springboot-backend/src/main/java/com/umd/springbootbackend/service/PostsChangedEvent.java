@@ -0,0 +1,12 @@
+package com.umd.springbootbackend.service;
+
+import java.util.List;
+
+/**
+ * Published by PostService once per call that changed posts, after the
+ * changes have committed. A bulk call carries all of its changes in one
+ * event, so listeners take their locks and invalidate caches once per call
+ * rather than once per post.
+ */
+public record PostsChangedEvent(List<PostChangedEvent> changes) {
+}
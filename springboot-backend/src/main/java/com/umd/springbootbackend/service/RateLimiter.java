@@ -0,0 +1,64 @@
+package com.umd.springbootbackend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets by key, updated lock-free. Each bucket is a single AtomicLong
+ * holding the time at which it will be full again (the generic cell rate
+ * algorithm), so taking a token is one compare-and-set and a bucket costs a
+ * map entry and one long.
+ *
+ * A bucket whose full-again time has passed is indistinguishable from a new
+ * one, so the periodic sweep drops those and memory only holds clients that
+ * are currently drawing down their allowance.
+ */
+@Component
+public class RateLimiter {
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    // Keeps times non-negative; System.nanoTime() may be any value
+    private final long origin = System.nanoTime();
+
+    public RateLimiter(MeterRegistry meterRegistry) {
+        meterRegistry.gaugeMapSize("http.rate_limit.buckets", Tags.empty(), buckets);
+    }
+
+    /**
+     * Takes a token from the key's bucket. Returns Duration.ZERO when one was
+     * available, otherwise how long until the next one will be.
+     */
+    public Duration tryAcquire(String key, int capacity, Duration period) {
+        long interval = Math.max(1, period.toNanos() / Math.max(1, capacity));
+        long burst = interval * capacity;
+        long now = now();
+        AtomicLong fullAt = buckets.computeIfAbsent(key, k -> new AtomicLong());
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + interval;
+            if (next - now > burst) {
+                return Duration.ofNanos(next - now - burst);
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return Duration.ZERO;
+            }
+        }
+    }
+
+    // A request racing the removal of its bucket may go uncounted; that allows at most one extra
+    @Scheduled(fixedDelayString = "${rate-limit.evict-interval}")
+    public void evictFullBuckets() {
+        long now = now();
+        buckets.values().removeIf(fullAt -> fullAt.get() <= now);
+    }
+
+    private long now() {
+        return System.nanoTime() - origin;
+    }
+}
@@ -0,0 +1,75 @@
+package com.umd.springbootbackend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns post text into index terms: lower-cases, splits on anything that is
+ * not a letter or digit, drops stop words and applies a light suffix stemmer
+ * so "keys", "key" and "keyed", or "charger" and "charging", end up as the same term.
+ */
+public final class TextAnalyzer {
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "has", "have", "i",
+            "in", "is", "it", "its", "my", "of", "on", "or", "that", "the", "this", "to", "was",
+            "were", "with", "found", "lost", "near");
+
+    private TextAnalyzer() {}
+
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (token.isEmpty() || STOP_WORDS.contains(token)) {
+                continue;
+            }
+            terms.add(stem(token));
+        }
+        return terms;
+    }
+
+    // Strips common English inflections; deliberately conservative so short words survive intact.
+    // The plural is removed first, so "chargers" and "charger" go through the same suffix rules.
+    static String stem(String word) {
+        if (word.length() <= 3) {
+            return word;
+        }
+        word = singular(word);
+        if (word.endsWith("ing") && word.length() > 5) {
+            return undouble(word.substring(0, word.length() - 3));
+        }
+        if (word.endsWith("er") && word.length() > 5) {
+            return undouble(word.substring(0, word.length() - 2));
+        }
+        if (word.endsWith("ed") && word.length() > 4) {
+            return undouble(word.substring(0, word.length() - 2));
+        }
+        return word;
+    }
+
+    private static String singular(String word) {
+        if (word.endsWith("ies") && word.length() > 4) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.endsWith("sses")) {
+            return word.substring(0, word.length() - 2);
+        }
+        if (word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+
+    // "dropped" -> "dropp" -> "drop"
+    private static String undouble(String stem) {
+        int n = stem.length();
+        if (n > 2 && stem.charAt(n - 1) == stem.charAt(n - 2) && "lsz".indexOf(stem.charAt(n - 1)) < 0) {
+            return stem.substring(0, n - 1);
+        }
+        return stem;
+    }
+}
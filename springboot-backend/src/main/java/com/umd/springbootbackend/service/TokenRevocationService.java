@@ -0,0 +1,111 @@
+package com.umd.springbootbackend.service;
+
+import com.umd.springbootbackend.model.RevokedToken;
+import com.umd.springbootbackend.repo.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Revoked JWTs, by jti, stored in revoked_tokens with a Bloom filter in front.
+ * JwtAuthenticationFilter asks on every request; a token the filter has never
+ * seen is answered in memory, and only possible positives reach the table.
+ *
+ * The filter is loaded at startup and picks up revocations made by other
+ * instances every sync-interval. Entries cannot be removed from a Bloom
+ * filter, so pruning deletes expired rows and builds a fresh filter from
+ * what is left.
+ */
+@Component
+public class TokenRevocationService {
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final JwtService jwtService;
+    private final int expectedTokens;
+    private final Duration syncInterval;
+
+    private volatile BloomFilter filter;
+    // Revocations at or after this time may not be in the filter yet
+    private volatile Instant syncedUpTo;
+
+    public TokenRevocationService(
+            RevokedTokenRepository revokedTokenRepository,
+            JwtService jwtService,
+            @Value("${security.jwt.revocation.expected-tokens}") int expectedTokens,
+            @Value("${security.jwt.revocation.sync-interval}") Duration syncInterval) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.jwtService = jwtService;
+        this.expectedTokens = expectedTokens;
+        this.syncInterval = syncInterval;
+        this.filter = new BloomFilter(expectedTokens, FALSE_POSITIVE_RATE);
+        this.syncedUpTo = Instant.EPOCH;
+    }
+
+    public boolean isRevoked(String jti) {
+        return jti != null && filter.mightContain(jti) && revokedTokenRepository.existsById(jti);
+    }
+
+    // Revokes the given token if it is valid and carries a jti; anything else is ignored
+    public void revoke(String token) {
+        if (token == null || token.isEmpty()) {
+            return;
+        }
+        Claims claims;
+        try {
+            claims = jwtService.verify(token);
+        } catch (JwtException e) {
+            return;
+        }
+        if (claims.getId() == null) {
+            return;
+        }
+        revokedTokenRepository.save(new RevokedToken(claims.getId(), claims.getExpiration().toInstant(), Instant.now()));
+        synchronized (this) {
+            filter.add(claims.getId());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.prune-interval}",
+            initialDelayString = "${security.jwt.revocation.prune-interval}")
+    public void prune() {
+        Instant now = Instant.now();
+        int deleted = revokedTokenRepository.deleteExpired(now);
+        List<String> active;
+        // Held while rebuilding so a token revoked here meanwhile is not left out of the new filter
+        synchronized (this) {
+            active = revokedTokenRepository.findActiveJtis(now);
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedTokens, active.size() * 2), FALSE_POSITIVE_RATE);
+            active.forEach(rebuilt::add);
+            filter = rebuilt;
+        }
+        // Overlap the next sync with this load, so revocations committed by others meanwhile are not missed
+        syncedUpTo = now.minus(syncInterval);
+        if (deleted > 0) {
+            logger.info("Pruned {} expired token revocations, {} remain", deleted, active.size());
+        }
+    }
+
+    // Adds revocations made by other instances since the last sync
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.sync-interval}",
+            initialDelayString = "${security.jwt.revocation.sync-interval}")
+    public void sync() {
+        Instant now = Instant.now();
+        List<String> recent = revokedTokenRepository.findJtisRevokedSince(syncedUpTo, now);
+        BloomFilter current = filter;
+        recent.forEach(current::add);
+        syncedUpTo = now.minus(syncInterval);
+    }
+}
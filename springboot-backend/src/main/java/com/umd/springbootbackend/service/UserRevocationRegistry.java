@@ -0,0 +1,46 @@
+package com.umd.springbootbackend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Users whose tokens must stop working before they expire, such as deleted
+ * accounts. Lets JwtAuthenticationFilter trust a token's claims without a
+ * users lookup. Entries are dropped once every token issued before the
+ * revocation has expired anyway.
+ *
+ * The list lives in memory only, so it cannot vouch for tokens issued before
+ * this instance started; those are checked against the database instead.
+ */
+@Component
+public class UserRevocationRegistry {
+    // Token iat has one-second precision
+    private final Instant startedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    private final long tokenLifetimeMillis;
+    // user id -> when it was revoked, in epoch millis
+    private final Map<Integer, Long> revokedAt = new ConcurrentHashMap<>();
+
+    public UserRevocationRegistry(@Value("${security.jwt.expiration-time}") long tokenLifetimeMillis) {
+        this.tokenLifetimeMillis = tokenLifetimeMillis;
+    }
+
+    public void revoke(Integer userId) {
+        long now = System.currentTimeMillis();
+        revokedAt.values().removeIf(at -> at < now - tokenLifetimeMillis);
+        revokedAt.put(userId, now);
+    }
+
+    public boolean isRevoked(Integer userId) {
+        return revokedAt.containsKey(userId);
+    }
+
+    public boolean issuedBeforeStartup(Date issuedAt) {
+        return issuedAt == null || issuedAt.toInstant().isBefore(startedAt);
+    }
+}
@@ -10,9 +10,16 @@ import java.util.List;
 @Service
 public class UserService {
     private final UserRepository userRepository;
+    private final PostService postService;
+    private final UserRevocationRegistry userRevocationRegistry;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(
+            UserRepository userRepository,
+            PostService postService,
+            UserRevocationRegistry userRevocationRegistry) {
         this.userRepository = userRepository;
+        this.postService = postService;
+        this.userRevocationRegistry = userRevocationRegistry;
     }
 
     public User getUserById(Integer userId) {
@@ -34,7 +41,9 @@ public class UserService {
             throw new IllegalArgumentException("Invalid user ID");
         }
         User user = getUserById(userId); // This throws exception if not found
+        postService.deletePostsByUser(user.getId()); // Through PostService so the post indexes stay in sync
         userRepository.delete(user);
+        userRevocationRegistry.revoke(user.getId()); // Outstanding tokens stop working right away
     }
 
     public void deleteUserByUsername(String username) {
@@ -42,6 +51,8 @@ public class UserService {
             throw new IllegalArgumentException("Invalid username");
         }
         User user = getUserByUsername(username); // This throws exception if not found
+        postService.deletePostsByUser(user.getId());
         userRepository.delete(user);
+        userRevocationRegistry.revoke(user.getId());
     }
 }
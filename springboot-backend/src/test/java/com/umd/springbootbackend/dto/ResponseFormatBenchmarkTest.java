@@ -0,0 +1,74 @@
+package com.umd.springbootbackend.dto;
+
+import com.umd.springbootbackend.config.WebConfig;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static com.umd.springbootbackend.dto.ResponseFormatSizeTest.MESSAGE_LIST;
+import static com.umd.springbootbackend.dto.ResponseFormatSizeTest.messages;
+import static com.umd.springbootbackend.dto.ResponseFormatSizeTest.posts;
+import static com.umd.springbootbackend.dto.ResponseFormatSizeTest.write;
+
+// Bytes, gzipped bytes and ns per serialization of JSON and CBOR for a 500-post feed page and a
+// 1,000-message conversation, through the application's message converters. Excluded from the
+// normal build; run with: mvn test -Pbenchmark
+@Tag("benchmark")
+@SpringBootTest(
+        classes = {JacksonAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class, WebConfig.class},
+        properties = "logging.level.com.umd.springbootbackend.dto=INFO")
+class ResponseFormatBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(ResponseFormatBenchmarkTest.class);
+    private static final int WARMUP = 500;
+    private static final int ITERATIONS = 1000;
+
+    @Autowired
+    private HttpMessageConverters converters;
+
+    @Test
+    void serializePostsAndMessages() throws IOException {
+        List<PostDto> posts = posts(500);
+        PostPageDto page = new PostPageDto(posts, FeedCursor.of(posts.get(posts.size() - 1)).toString());
+        List<MessageDto> messages = messages(1000);
+
+        logger.info(String.format("%-22s %10s %10s %12s", "payload", "bytes", "gzip", "ns/op"));
+        measure("500 posts, JSON", page, PostPageDto.class, MediaType.APPLICATION_JSON);
+        measure("500 posts, CBOR", page, PostPageDto.class, MediaType.APPLICATION_CBOR);
+        measure("1000 messages, JSON", messages, MESSAGE_LIST, MediaType.APPLICATION_JSON);
+        measure("1000 messages, CBOR", messages, MESSAGE_LIST, MediaType.APPLICATION_CBOR);
+    }
+
+    private void measure(String label, Object body, Type type, MediaType mediaType) throws IOException {
+        for (int i = 0; i < WARMUP; i++) {
+            write(converters, body, type, mediaType);
+        }
+        byte[] bytes = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            bytes = write(converters, body, type, mediaType);
+        }
+        long nanosPerOp = (System.nanoTime() - start) / ITERATIONS;
+        logger.info(String.format("%-22s %10d %10d %12d", label, bytes.length, gzip(bytes).length, nanosPerOp));
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,100 @@
+package com.umd.springbootbackend.dto;
+
+import com.umd.springbootbackend.config.WebConfig;
+import com.umd.springbootbackend.model.ItemType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Payload size of JSON against CBOR for a 500-post feed page and a 1,000-message conversation,
+// written by the application's own message converters. ResponseFormatBenchmarkTest adds timings.
+@SpringBootTest(classes = {JacksonAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class, WebConfig.class})
+class ResponseFormatSizeTest {
+    static final Type MESSAGE_LIST = new ParameterizedTypeReference<List<MessageDto>>() {}.getType();
+
+    @Autowired
+    private HttpMessageConverters converters;
+
+    @Test
+    void cborIsSmallerThanJsonForPostsAndMessages() throws IOException {
+        List<PostDto> posts = posts(500);
+        PostPageDto page = new PostPageDto(posts, FeedCursor.of(posts.get(posts.size() - 1)).toString());
+        List<MessageDto> messages = messages(1000);
+
+        assertTrue(write(converters, page, PostPageDto.class, MediaType.APPLICATION_CBOR).length
+                < write(converters, page, PostPageDto.class, MediaType.APPLICATION_JSON).length);
+        assertTrue(write(converters, messages, MESSAGE_LIST, MediaType.APPLICATION_CBOR).length
+                < write(converters, messages, MESSAGE_LIST, MediaType.APPLICATION_JSON).length);
+    }
+
+    // Writes the body with the first converter that accepts it, as Spring MVC picks one
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static byte[] write(HttpMessageConverters converters, Object body, Type type, MediaType mediaType)
+            throws IOException {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        for (HttpMessageConverter<?> converter : converters.getConverters()) {
+            if (converter instanceof GenericHttpMessageConverter generic
+                    && generic.canWrite(type, body.getClass(), mediaType)) {
+                generic.write(body, type, mediaType, output);
+                return output.getBodyAsBytes();
+            }
+            if (converter.canWrite(body.getClass(), mediaType)) {
+                ((HttpMessageConverter<Object>) converter).write(body, mediaType, output);
+                return output.getBodyAsBytes();
+            }
+        }
+        throw new IllegalStateException("No converter writes " + mediaType);
+    }
+
+    static List<PostDto> posts(int count) {
+        ItemType[] types = ItemType.values();
+        List<PostDto> posts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            posts.add(new PostDto(
+                    count - i,
+                    i % 40,
+                    "terp" + (i % 40),
+                    types[i % types.length],
+                    "Found a " + types[i % types.length].name().toLowerCase() + " near building " + (i % 25)
+                            + " on the second floor, ask at the front desk",
+                    i % 3 == 0 ? String.format("%064x", i) : null,
+                    i % 2 == 0 ? 38.986 + i * 1e-5 : null,
+                    i % 2 == 0 ? -76.944 - i * 1e-5 : null,
+                    Instant.parse("2025-09-01T12:00:00Z").plusSeconds(i * 60L),
+                    null));
+        }
+        return posts;
+    }
+
+    static List<MessageDto> messages(int count) {
+        LocalDateTime start = LocalDateTime.of(2025, 9, 1, 12, 0);
+        List<MessageDto> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            messages.add(new MessageDto(
+                    (long) i,
+                    i % 2 == 0 ? 7L : 11L,
+                    i % 2 == 0 ? 11L : 7L,
+                    "Is this the blue water bottle you found? Message " + i,
+                    start.plusMinutes(i),
+                    i < count - 20));
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,32 @@
+package com.umd.springbootbackend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+    @Test
+    void hasNoFalseNegativesAndRoughlyTheConfiguredFalsePositiveRate() {
+        int insertions = 10_000;
+        BloomFilter filter = new BloomFilter(insertions, 0.01);
+        String[] added = new String[insertions];
+        for (int i = 0; i < insertions; i++) {
+            added[i] = UUID.randomUUID().toString();
+            filter.add(added[i]);
+        }
+        for (String value : added) {
+            assertTrue(filter.mightContain(value));
+        }
+
+        int probes = 100_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < probes * 0.02, "false positive rate " + (double) falsePositives / probes);
+    }
+}
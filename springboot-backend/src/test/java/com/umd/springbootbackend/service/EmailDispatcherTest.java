@@ -0,0 +1,106 @@
+package com.umd.springbootbackend.service;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.umd.springbootbackend.model.OutboxEmail;
+import com.umd.springbootbackend.repo.OutboxEmailRepository;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Runs EmailDispatcher against an embedded GreenMail SMTP server; the outbox table is mocked
+class EmailDispatcherTest {
+    private static final int MAX_ATTEMPTS = 3;
+    private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(30);
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+
+    private final OutboxEmailRepository outboxEmailRepository = mock(OutboxEmailRepository.class);
+
+    @BeforeEach
+    void setUp() {
+        when(outboxEmailRepository.saveAll(anyIterable())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void sendsDueEmailsAndMarksThemSent() throws Exception {
+        List<OutboxEmail> due = List.of(
+                new OutboxEmail("alice@umd.edu", "Account verification", "code 111111"),
+                new OutboxEmail("bob@umd.edu", "Account verification", "code 222222"),
+                new OutboxEmail("carol@umd.edu", "Account verification", "code 333333"));
+        when(outboxEmailRepository.lockDue(any(), any())).thenReturn(due);
+
+        dispatcher(ServerSetupTest.SMTP.getPort()).dispatch();
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(3, received.length);
+        assertEquals("Account verification", received[0].getSubject());
+        for (OutboxEmail email : due) {
+            assertEquals(OutboxEmail.Status.SENT, email.getStatus());
+            assertEquals(1, email.getAttempts());
+            assertNotNull(email.getSentAt());
+        }
+    }
+
+    @Test
+    void backsOffAndGivesUpWhenSmtpIsDown() throws Exception {
+        OutboxEmail email = new OutboxEmail("alice@umd.edu", "Account verification", "code 111111");
+        when(outboxEmailRepository.lockDue(any(), any())).thenReturn(List.of(email));
+        EmailDispatcher dispatcher = dispatcher(unusedPort());
+
+        Instant before = Instant.now();
+        dispatcher.dispatch();
+        assertEquals(OutboxEmail.Status.PENDING, email.getStatus());
+        assertEquals(1, email.getAttempts());
+        assertTrue(!email.getNextAttemptAt().isBefore(before.plus(INITIAL_BACKOFF)));
+        assertNotNull(email.getLastError());
+
+        before = Instant.now();
+        dispatcher.dispatch();
+        assertEquals(OutboxEmail.Status.PENDING, email.getStatus());
+        assertTrue(!email.getNextAttemptAt().isBefore(before.plus(INITIAL_BACKOFF.multipliedBy(2))));
+
+        dispatcher.dispatch();
+        assertEquals(OutboxEmail.Status.DEAD, email.getStatus());
+        assertEquals(MAX_ATTEMPTS, email.getAttempts());
+        assertNull(email.getSentAt());
+        assertEquals(0, greenMail.getReceivedMessages().length);
+    }
+
+    private EmailDispatcher dispatcher(int smtpPort) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpPort);
+        mailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "2000");
+        EmailService emailService = new EmailService(mailSender, outboxEmailRepository);
+        return new EmailDispatcher(outboxEmailRepository, emailService, mock(PlatformTransactionManager.class),
+                50, MAX_ATTEMPTS, INITIAL_BACKOFF, Duration.ofHours(1), Duration.ofMinutes(5));
+    }
+
+    private static int unusedPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
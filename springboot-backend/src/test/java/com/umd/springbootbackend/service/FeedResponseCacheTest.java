@@ -0,0 +1,143 @@
+package com.umd.springbootbackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.umd.springbootbackend.dto.FeedCursor;
+import com.umd.springbootbackend.model.ItemType;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FeedResponseCacheTest {
+    private final Map<String, Integer> loads = new HashMap<>();
+
+    @Test
+    void evictsOnlyEntriesThatCouldContainTheChangedPost() {
+        FeedResponseCache cache = new FeedResponseCache(new ObjectMapper(), DataSize.ofMegabytes(1));
+        FeedResponseCache.Scope keysLow = scope(EnumSet.of(ItemType.KEYS), 1, 10, false);
+        FeedResponseCache.Scope keysHigh = scope(EnumSet.of(ItemType.KEYS), 11, 20, false);
+        FeedResponseCache.Scope books = scope(EnumSet.of(ItemType.BOOK), 1, 20, false);
+        FeedResponseCache.Scope facets = scope(EnumSet.of(ItemType.WALLET), 100, 200, true);
+        load(cache, "keysLow", keysLow);
+        load(cache, "keysHigh", keysHigh);
+        load(cache, "books", books);
+        load(cache, "facets", facets);
+
+        // Same type before and after, so the facet counts are unchanged
+        cache.onPostsChanged(event(PostChangedEvent.ChangeType.UPDATED, 5, ItemType.KEYS, ItemType.KEYS));
+        load(cache, "keysLow", keysLow);
+        load(cache, "keysHigh", keysHigh);
+        load(cache, "books", books);
+        load(cache, "facets", facets);
+        assertEquals(Map.of("keysLow", 2, "keysHigh", 1, "books", 1, "facets", 1), loads);
+
+        // Moving a post from BOOK to KEYS touches both types and changes the counts
+        cache.onPostsChanged(event(PostChangedEvent.ChangeType.UPDATED, 15, ItemType.KEYS, ItemType.BOOK));
+        load(cache, "keysLow", keysLow);
+        load(cache, "keysHigh", keysHigh);
+        load(cache, "books", books);
+        load(cache, "facets", facets);
+        assertEquals(Map.of("keysLow", 2, "keysHigh", 2, "books", 2, "facets", 2), loads);
+
+        // The feed is ordered by creation time, so a high id created early belongs to the older page
+        cache.onPostsChanged(new PostsChangedEvent(List.of(new PostChangedEvent(PostChangedEvent.ChangeType.UPDATED,
+                500, 1, Instant.ofEpochSecond(5), ItemType.KEYS, ItemType.KEYS, "", null, null))));
+        load(cache, "keysLow", keysLow);
+        load(cache, "keysHigh", keysHigh);
+        assertEquals(3, loads.get("keysLow"));
+        assertEquals(2, loads.get("keysHigh"));
+
+        cache.evictFacets();
+        load(cache, "keysLow", keysLow);
+        load(cache, "facets", facets);
+        assertEquals(3, loads.get("keysLow"));
+        assertEquals(3, loads.get("facets"));
+    }
+
+    @Test
+    void doesNotCacheALoadThatRacedAnInvalidation() {
+        FeedResponseCache cache = new FeedResponseCache(new ObjectMapper(), DataSize.ofMegabytes(1));
+        FeedResponseCache.Scope scope = scope(EnumSet.of(ItemType.KEYS), 1, 10, false);
+
+        // The change lands while the page is being read, outside the cached scope
+        cache.getOrLoad("page", () -> {
+            loads.merge("page", 1, Integer::sum);
+            cache.onPostsChanged(event(PostChangedEvent.ChangeType.CREATED, 50, ItemType.BOOK, null));
+            return new FeedResponseCache.Loaded("stale", scope);
+        });
+        load(cache, "page", scope);
+        load(cache, "page", scope);
+
+        assertEquals(2, loads.get("page"));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntriesBeyondTheByteBound() {
+        // Each entry is about 1.8KB of JSON plus gzip, so two fit and a third does not
+        FeedResponseCache cache = new FeedResponseCache(new ObjectMapper(), DataSize.ofBytes(5000));
+        FeedResponseCache.Scope scope = FeedResponseCache.Scope.everything();
+        Random random = new Random(1);
+        Map<String, String> bodies = Map.of(
+                "a", randomText(random, 1000),
+                "b", randomText(random, 1000),
+                "c", randomText(random, 1000),
+                "huge", randomText(random, 5000));
+
+        load(cache, "a", scope, bodies.get("a"));
+        load(cache, "b", scope, bodies.get("b"));
+        load(cache, "a", scope, bodies.get("a"));
+        load(cache, "c", scope, bodies.get("c"));
+        load(cache, "a", scope, bodies.get("a"));
+        load(cache, "b", scope, bodies.get("b"));
+        assertEquals(Map.of("a", 1, "b", 2, "c", 1), loads);
+
+        // An entry larger than the whole bound is served but never cached
+        load(cache, "huge", scope, bodies.get("huge"));
+        load(cache, "huge", scope, bodies.get("huge"));
+        assertEquals(2, loads.get("huge"));
+    }
+
+    private void load(FeedResponseCache cache, String key, FeedResponseCache.Scope scope) {
+        load(cache, key, scope, key);
+    }
+
+    private void load(FeedResponseCache cache, String key, FeedResponseCache.Scope scope, String body) {
+        FeedResponseCache.CachedResponse response = cache.getOrLoad(key, () -> {
+            loads.merge(key, 1, Integer::sum);
+            return new FeedResponseCache.Loaded(body, scope);
+        });
+        assertEquals("\"" + body + "\"", new String(response.json()));
+    }
+
+    // In these tests post n is created n seconds after the epoch, so the feed order follows the ids
+    private static FeedResponseCache.Scope scope(
+            EnumSet<ItemType> types, int oldestId, int newestId, boolean includesFacets) {
+        return new FeedResponseCache.Scope(types, cursor(oldestId), cursor(newestId + 1), includesFacets);
+    }
+
+    private static FeedCursor cursor(int postId) {
+        return new FeedCursor(Instant.ofEpochSecond(postId), postId);
+    }
+
+    private static PostsChangedEvent event(
+            PostChangedEvent.ChangeType type, int postId, ItemType itemType, ItemType previousItemType) {
+        return new PostsChangedEvent(List.of(new PostChangedEvent(
+                type, postId, 1, Instant.ofEpochSecond(postId), itemType, previousItemType, "", null, null)));
+    }
+
+    private static String randomText(Random random, int length) {
+        String alphabet = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+}
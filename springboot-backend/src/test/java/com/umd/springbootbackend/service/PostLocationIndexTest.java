@@ -0,0 +1,83 @@
+package com.umd.springbootbackend.service;
+
+import com.umd.springbootbackend.model.ItemType;
+import com.umd.springbootbackend.repo.PostRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+class PostLocationIndexTest {
+    // One degree of latitude, in meters, on the sphere the index uses
+    private static final double METERS_PER_DEGREE = Math.toRadians(1) * 6_371_000;
+    private static final EnumSet<ItemType> ALL = EnumSet.noneOf(ItemType.class);
+
+    private final PostLocationIndex index = new PostLocationIndex(mock(PostRepository.class));
+
+    @Test
+    void findsPostsInNeighbouringCellsAcrossBoundaries() {
+        // 38.99 and -76.945 are cell edges (multiples of 0.005); each pair straddles one
+        locate(1, ItemType.KEYS, 38.9899999, -76.9475);
+        locate(2, ItemType.KEYS, 38.9900001, -76.9475);
+        locate(3, ItemType.KEYS, 38.9875, -76.9450001);
+        locate(4, ItemType.KEYS, 38.9875, -76.9449999);
+
+        assertEquals(List.of(1, 2), index.nearby(38.99, -76.9475, 10, ALL, 10));
+        assertEquals(List.of(4, 3), index.nearby(38.9875, -76.94499995, 10, ALL, 10));
+        // A radius many cells wide still sees everything, nearest first
+        assertEquals(List.of(1, 2, 3, 4), index.nearby(38.99, -76.9475, 1000, ALL, 10));
+    }
+
+    @Test
+    void filtersByExactDistanceAtHighLatitude() {
+        // At 70°N a degree of longitude is only about 38km
+        double metersPerLonDegree = METERS_PER_DEGREE * Math.cos(Math.toRadians(70));
+        double lonStep = 1900 / metersPerLonDegree;
+        double latStep = 1900 / METERS_PER_DEGREE;
+        locate(1, ItemType.WALLET, 70, 20 + lonStep);
+        locate(2, ItemType.WALLET, 70 + latStep, 20);
+        // Inside the 2km bounding box but about 2.7km away on the diagonal
+        locate(3, ItemType.WALLET, 70 + latStep, 20 + lonStep);
+        locate(4, ItemType.WALLET, 70, 20 + 2 * lonStep);
+
+        assertEquals(List.of(1, 2), sorted(index.nearby(70, 20, 2000, ALL, 10)));
+        assertEquals(List.of(), index.nearby(70, 20, 1800, ALL, 10));
+    }
+
+    @Test
+    void appliesTypesAndLimitAndFollowsMovesAndDeletes() {
+        locate(1, ItemType.KEYS, 38.986, -76.944);
+        locate(2, ItemType.WALLET, 38.9861, -76.944);
+        locate(3, ItemType.KEYS, 38.9862, -76.944);
+
+        assertEquals(List.of(1, 3), index.nearby(38.986, -76.944, 100, EnumSet.of(ItemType.KEYS), 10));
+        assertEquals(List.of(1, 2), index.nearby(38.986, -76.944, 100, ALL, 2));
+
+        // Moving a post to another cell, removing its location, and deleting a post, in one batch
+        index.onPostsChanged(new PostsChangedEvent(List.of(
+                change(PostChangedEvent.ChangeType.UPDATED, 1, ItemType.KEYS, 39.5, -76.944),
+                change(PostChangedEvent.ChangeType.UPDATED, 2, ItemType.WALLET, null, null),
+                change(PostChangedEvent.ChangeType.DELETED, 3, ItemType.KEYS, 38.9862, -76.944))));
+
+        assertEquals(List.of(), index.nearby(38.986, -76.944, 100, ALL, 10));
+        assertEquals(List.of(1), index.nearby(39.5, -76.944, 100, ALL, 10));
+    }
+
+    private void locate(int postId, ItemType itemType, double latitude, double longitude) {
+        index.onPostsChanged(new PostsChangedEvent(List.of(
+                change(PostChangedEvent.ChangeType.CREATED, postId, itemType, latitude, longitude))));
+    }
+
+    private static PostChangedEvent change(
+            PostChangedEvent.ChangeType type, int postId, ItemType itemType, Double latitude, Double longitude) {
+        return new PostChangedEvent(type, postId, 1, Instant.EPOCH, itemType, null, "", latitude, longitude);
+    }
+
+    private static List<Integer> sorted(List<Integer> ids) {
+        return ids.stream().sorted().toList();
+    }
+}
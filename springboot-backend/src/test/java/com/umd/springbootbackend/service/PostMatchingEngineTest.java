@@ -0,0 +1,142 @@
+package com.umd.springbootbackend.service;
+
+import com.umd.springbootbackend.model.ItemType;
+import com.umd.springbootbackend.model.PostMatch;
+import com.umd.springbootbackend.repo.PostMatchRepository;
+import com.umd.springbootbackend.repo.PostRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+// The index is in memory; post_matches is mocked and only the writes are inspected
+class PostMatchingEngineTest {
+    private final PostMatchRepository postMatchRepository = mock(PostMatchRepository.class);
+    private final PostMatchingEngine engine =
+            new PostMatchingEngine(mock(PostRepository.class), postMatchRepository, 2, 0.15, Runnable::run);
+
+    @Test
+    void ranksSameTypePostsByOtherUsersBySimilarity() {
+        create(1, 10, ItemType.KEYS, "Lost car keys with a red keychain at McKeldin");
+        create(2, 20, ItemType.KEYS, "Found car keys with a blue keychain at Stamp");
+        create(3, 30, ItemType.KEYS, "Found keys by Hornbake");
+        // Same user or another type never match, however similar
+        create(4, 40, ItemType.KEYS, "Red keychain with car keys, lost at McKeldin");
+        create(5, 50, ItemType.WALLET, "Found car keys with a red keychain at McKeldin");
+        clearInvocations(postMatchRepository);
+
+        List<PostMatch> saved = create(6, 40, ItemType.KEYS, "Found car keys with a red keychain at McKeldin");
+
+        // Top 2 in both directions: post 1 shares the most terms, then post 2; post 3 is cut
+        assertEquals(4, saved.size());
+        assertEquals(6, saved.get(0).getPostId());
+        assertEquals(1, saved.get(0).getCandidateId());
+        assertEquals(1, saved.get(1).getPostId());
+        assertEquals(6, saved.get(1).getCandidateId());
+        assertEquals(saved.get(0).getScore(), saved.get(1).getScore());
+        assertEquals(2, saved.get(2).getCandidateId());
+        assertTrue(saved.get(0).getScore() > saved.get(2).getScore());
+        assertTrue(saved.get(0).getScore() <= 1.0 + 1e-9);
+        assertTrue(saved.get(2).getScore() >= 0.15);
+    }
+
+    @Test
+    void trimsTheCandidatesOfANewPostToTheirTopMatches() {
+        create(1, 10, ItemType.KEYS, "Lost car keys with a red keychain at McKeldin");
+        create(2, 20, ItemType.KEYS, "Found car keys with a blue keychain at Stamp");
+
+        create(3, 30, ItemType.KEYS, "Found car keys on a red keychain");
+
+        // The new post's own rows are within top-K already; trimming it too is harmless
+        verify(postMatchRepository).trimToTopK(List.of(3, 1, 2), 2);
+    }
+
+    @Test
+    void matchesPostsOfOneBatchWithEachOtherOnce() {
+        create(1, 10, ItemType.KEYS, "Lost car keys with a red keychain at McKeldin");
+        clearInvocations(postMatchRepository);
+
+        engine.onPostsChanged(new PostsChangedEvent(List.of(
+                change(PostChangedEvent.ChangeType.CREATED, 2, 20, ItemType.KEYS, null,
+                        "Found car keys with a red keychain at McKeldin"),
+                change(PostChangedEvent.ChangeType.CREATED, 3, 30, ItemType.KEYS, null,
+                        "Found car keys with a blue keychain at McKeldin"))));
+
+        List<PostMatch> saved = savedMatches();
+        List<List<Integer>> pairs = saved.stream().map(m -> List.of(m.getPostId(), m.getCandidateId())).toList();
+        assertEquals(pairs.stream().distinct().count(), pairs.size());
+        // 2 and 3 match 1 and each other, in both directions
+        assertEquals(6, pairs.size());
+        verify(postMatchRepository, never()).deleteAllInvolving(any());
+    }
+
+    @Test
+    void removesADeletedPostFromBothDirections() {
+        create(1, 10, ItemType.KEYS, "Lost car keys with a red keychain at McKeldin");
+        create(2, 20, ItemType.KEYS, "Found car keys with a red keychain at McKeldin");
+
+        engine.onPostsChanged(event(PostChangedEvent.ChangeType.DELETED, 2, 20, ItemType.KEYS, null));
+        verify(postMatchRepository).deleteAllInvolving(List.of(2));
+
+        // The deleted post is gone from the index, so a similar new post no longer finds it
+        List<PostMatch> saved = create(3, 30, ItemType.KEYS, "Found car keys with a red keychain at McKeldin");
+        assertEquals(2, saved.size());
+        assertEquals(1, saved.get(0).getCandidateId());
+    }
+
+    @Test
+    void rematchesAPostThatChangedType() {
+        create(1, 10, ItemType.KEYS, "Lost car keys with a red keychain at McKeldin");
+        create(2, 20, ItemType.KEYS, "Found car keys with a red keychain at McKeldin");
+        clearInvocations(postMatchRepository);
+
+        engine.onPostsChanged(event(PostChangedEvent.ChangeType.UPDATED, 2, 20, ItemType.WALLET, ItemType.KEYS,
+                "Found car keys with a red keychain at McKeldin"));
+
+        verify(postMatchRepository).deleteAllInvolving(List.of(2));
+        assertEquals(List.of(), savedMatches());
+        verify(postMatchRepository, never()).trimToTopK(any(), anyInt());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<PostMatch> create(int postId, int userId, ItemType itemType, String content) {
+        clearInvocations(postMatchRepository);
+        engine.onPostsChanged(event(PostChangedEvent.ChangeType.CREATED, postId, userId, itemType, null, content));
+        return savedMatches();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<PostMatch> savedMatches() {
+        ArgumentCaptor<Iterable<PostMatch>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(postMatchRepository).saveAll(captor.capture());
+        List<PostMatch> saved = new ArrayList<>();
+        captor.getValue().forEach(saved::add);
+        return saved;
+    }
+
+    private static PostsChangedEvent event(
+            PostChangedEvent.ChangeType type, int postId, int userId, ItemType itemType, ItemType previousItemType) {
+        return event(type, postId, userId, itemType, previousItemType, null);
+    }
+
+    private static PostsChangedEvent event(PostChangedEvent.ChangeType type, int postId, int userId,
+            ItemType itemType, ItemType previousItemType, String content) {
+        return new PostsChangedEvent(List.of(change(type, postId, userId, itemType, previousItemType, content)));
+    }
+
+    private static PostChangedEvent change(PostChangedEvent.ChangeType type, int postId, int userId,
+            ItemType itemType, ItemType previousItemType, String content) {
+        return new PostChangedEvent(type, postId, userId, Instant.EPOCH, itemType, previousItemType, content, null, null);
+    }
+}
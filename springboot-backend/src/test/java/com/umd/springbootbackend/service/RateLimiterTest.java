@@ -0,0 +1,40 @@
+package com.umd.springbootbackend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimiter rateLimiter = new RateLimiter(meterRegistry);
+
+    @Test
+    void allowsABurstOfCapacityThenAsksToWait() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(rateLimiter.tryAcquire("login|ip:10.0.0.1", 5, Duration.ofMinutes(1)).isZero());
+        }
+        Duration wait = rateLimiter.tryAcquire("login|ip:10.0.0.1", 5, Duration.ofMinutes(1));
+        assertFalse(wait.isZero());
+        assertTrue(wait.compareTo(Duration.ofSeconds(12)) <= 0, "one token refills every 12s, got " + wait);
+
+        // Other clients have their own bucket
+        assertTrue(rateLimiter.tryAcquire("login|ip:10.0.0.2", 5, Duration.ofMinutes(1)).isZero());
+    }
+
+    @Test
+    void evictsOnlyBucketsThatHaveRefilled() throws InterruptedException {
+        rateLimiter.tryAcquire("short", 1, Duration.ofMillis(20));
+        rateLimiter.tryAcquire("long", 1, Duration.ofHours(1));
+        Thread.sleep(50);
+
+        rateLimiter.evictFullBuckets();
+
+        assertEquals(1.0, meterRegistry.get("http.rate_limit.buckets").gauge().value());
+        assertFalse(rateLimiter.tryAcquire("long", 1, Duration.ofHours(1)).isZero());
+    }
+}
@@ -0,0 +1,41 @@
+package com.umd.springbootbackend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TextAnalyzerTest {
+    @Test
+    void singularAndPluralGiveTheSameTerm() {
+        String[][] pairs = {
+                {"charger", "chargers"},
+                {"computer", "computers"},
+                {"speaker", "speakers"},
+                {"sneaker", "sneakers"},
+                {"key", "keys"},
+                {"battery", "batteries"},
+                {"glass", "glasses"},
+                {"wallet", "wallets"},
+                {"paper", "papers"},
+                {"ring", "rings"},
+        };
+        for (String[] pair : pairs) {
+            assertEquals(TextAnalyzer.stem(pair[0]), TextAnalyzer.stem(pair[1]), pair[0] + " / " + pair[1]);
+        }
+    }
+
+    @Test
+    void relatedFormsShareAStem() {
+        assertEquals(TextAnalyzer.stem("charger"), TextAnalyzer.stem("charging"));
+        assertEquals(TextAnalyzer.stem("key"), TextAnalyzer.stem("keyed"));
+        assertEquals(TextAnalyzer.stem("drop"), TextAnalyzer.stem("dropped"));
+    }
+
+    @Test
+    void dropsStopWordsAndSplitsOnPunctuation() {
+        assertEquals(List.of(TextAnalyzer.stem("blue"), TextAnalyzer.stem("chargers"), "mckeldin"),
+                TextAnalyzer.analyze("Lost my blue chargers, near McKeldin!"));
+    }
+}